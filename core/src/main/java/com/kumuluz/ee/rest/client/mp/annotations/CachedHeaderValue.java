@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enables caching of computed header values. Can be put on a method referenced in
+ * {@link org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam} or on a
+ * {@link org.eclipse.microprofile.rest.client.ext.ClientHeadersFactory} implementation.
+ * <p>
+ * The cached value is shared by all rest client instances and is recomputed once it expires. When
+ * {@link #refreshAhead()} is set, the value is recomputed in the background before it expires, so that requests never
+ * wait for a new value.
+ * <p>
+ * Cached {@link org.eclipse.microprofile.rest.client.ext.ClientHeadersFactory} implementations are called with empty
+ * incoming and outgoing headers and the returned headers are added to the outgoing headers of each request.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface CachedHeaderValue {
+
+    /**
+     * Time the computed value is valid.
+     */
+    long ttl();
+
+    /**
+     * Unit of {@link #ttl()} and {@link #refreshAhead()}.
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * Time before expiry when the value is refreshed in the background. Disabled by default.
+     */
+    long refreshAhead() default 0;
+}
@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link org.eclipse.microprofile.rest.client.ext.ResponseExceptionMapper} whose
+ * {@link org.eclipse.microprofile.rest.client.ext.ResponseExceptionMapper#handles(int, javax.ws.rs.core.MultivaluedMap)}
+ * depends on the response status only.
+ * <p>
+ * Mappers are asked for every response by default. For mappers annotated with this annotation the result of
+ * {@code handles} is cached per status code, so that responses with statuses not handled by any mapper can skip the
+ * mapping entirely.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface StatusOnlyMapping {
+}
@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.cdi;
+
+import com.kumuluz.ee.rest.client.mp.engine.ClientDispatcher;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Interceptor chain of a single rest client method, resolved once together with the invocation of the target.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+final class InterceptedMethod {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType TARGET_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Invocation of the rest client method on the target, after all interceptors have been invoked.
+     */
+    @FunctionalInterface
+    interface TargetInvocation {
+        Object invoke(Object target, Object[] args) throws Throwable;
+    }
+
+    private final Method method;
+    private final InterceptorInvocationContext.InterceptorInvocation[] chain;
+    private final TargetInvocation targetInvocation;
+
+    InterceptedMethod(Method method, InterceptorInvocationContext.InterceptorInvocation[] chain,
+                      TargetInvocation targetInvocation) {
+        this.method = method;
+        this.chain = chain;
+        this.targetInvocation = targetInvocation;
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    InterceptorInvocationContext.InterceptorInvocation[] getChain() {
+        return chain;
+    }
+
+    TargetInvocation getTargetInvocation() {
+        return targetInvocation;
+    }
+
+    /**
+     * Invokes the method on a generated client through its dispatcher.
+     */
+    static TargetInvocation dispatching(ClientDispatcher dispatcher, int methodIndex) {
+        return (target, args) -> dispatcher.dispatch(target, methodIndex, args);
+    }
+
+    /**
+     * Invokes the method through a method handle, falling back to reflection if the method is not accessible.
+     */
+    static TargetInvocation direct(Method method) {
+        MethodHandle handle;
+        try {
+            handle = unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return reflective(method);
+        }
+
+        MethodHandle spreader = handle.asSpreader(Object[].class, method.getParameterCount()).asType(TARGET_TYPE);
+        return (target, args) -> {
+            Object[] arguments = args == null ? NO_ARGS : args;
+            return spreader.invokeExact(target, arguments);
+        };
+    }
+
+    static TargetInvocation reflective(Method method) {
+        return (target, args) -> {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause() != null ? e.getCause() : e;
+            }
+        };
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // non-public interface
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        }
+    }
+}
@@ -46,27 +46,40 @@ public class InterceptorInvocationContext implements InvocationContext {
 
     private int position;
 
-    private final Map<String, Object> contextData;
+    private Map<String, Object> contextData;
 
-    private final List<InterceptorInvocation> chain;
+    private final InterceptorInvocation[] chain;
+
+    private final InterceptedMethod.TargetInvocation targetInvocation;
 
     public InterceptorInvocationContext(final Object target, final Method method, final Object[] args, final List<InterceptorInvocation> chain) {
+        this(target, method, args, chain.toArray(new InterceptorInvocation[0]), InterceptedMethod.reflective(method));
+    }
+
+    InterceptorInvocationContext(final Object target, final InterceptedMethod interceptedMethod, final Object[] args) {
+        this(target, interceptedMethod.getMethod(), args, interceptedMethod.getChain(),
+                interceptedMethod.getTargetInvocation());
+    }
+
+    private InterceptorInvocationContext(final Object target, final Method method, final Object[] args,
+                                         final InterceptorInvocation[] chain,
+                                         final InterceptedMethod.TargetInvocation targetInvocation) {
         this.target = target;
         this.method = method;
         this.args = args;
-        this.contextData = new HashMap<>();
         this.position = 0;
         this.chain = chain;
+        this.targetInvocation = targetInvocation;
     }
 
     protected boolean hasNextInterceptor() {
-        return position < chain.size();
+        return position < chain.length;
     }
 
     protected Object invokeNext() throws Exception {
         int oldPosition = position;
         try {
-            return chain.get(position++).invoke(this);
+            return chain[position++].invoke(this);
         } finally {
             position = oldPosition;
         }
@@ -74,19 +87,20 @@ public class InterceptorInvocationContext implements InvocationContext {
 
     protected Object interceptorChainCompleted() throws Exception {
         try {
-            return method.invoke(target, args);
-        } catch (InvocationTargetException e) {
-            if (e.getCause() instanceof ResponseProcessingException) {
-                ResponseProcessingException rpe = (ResponseProcessingException) e.getCause();
-                // Note that the default client engine leverages a single connection
-                // MP FT: we need to close the response otherwise we would not be able to retry if the method returns javax.ws.rs.core.Response
-                rpe.getResponse().close();
-                Throwable cause = rpe.getCause();
-                if (cause instanceof RuntimeException) {
-                    throw (RuntimeException) cause;
-                }
+            return targetInvocation.invoke(target, args);
+        } catch (ResponseProcessingException rpe) {
+            // Note that the default client engine leverages a single connection
+            // MP FT: we need to close the response otherwise we would not be able to retry if the method returns javax.ws.rs.core.Response
+            rpe.getResponse().close();
+            Throwable cause = rpe.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
             }
+            throw rpe;
+        } catch (Exception | Error e) {
             throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
         }
     }
 
@@ -137,6 +151,10 @@ public class InterceptorInvocationContext implements InvocationContext {
 
     @Override
     public Map<String, Object> getContextData() {
+        if (contextData == null) {
+            // most interceptors never use context data
+            contextData = new HashMap<>();
+        }
         return contextData;
     }
 
@@ -17,6 +17,10 @@
  */
 package com.kumuluz.ee.rest.client.mp.cdi;
 
+import com.kumuluz.ee.rest.client.mp.engine.ClientDispatcher;
+import com.kumuluz.ee.rest.client.mp.engine.GeneratedClient;
+import com.kumuluz.ee.rest.client.mp.engine.GeneratedClientFactory;
+
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.enterprise.inject.spi.CDI;
@@ -24,7 +28,6 @@ import javax.enterprise.inject.spi.InterceptionType;
 import javax.enterprise.inject.spi.Interceptor;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
@@ -36,11 +39,21 @@ import java.util.stream.Collectors;
  * @author Urban Malc
  * @since 1.2.2
  */
-public class InterceptorInvocationHandler implements InvocationHandler {
+public class InterceptorInvocationHandler implements InvocationHandler, ClientDispatcher {
+
+    private static final InterceptorInvocationContext.InterceptorInvocation[] NO_INTERCEPTORS =
+            new InterceptorInvocationContext.InterceptorInvocation[0];
 
     private final Object target;
 
-    private final Map<Method, List<InterceptorInvocationContext.InterceptorInvocation>> interceptorChains;
+    private final boolean intercepted;
+
+    // used when the handler backs a proxy
+    private final Map<Method, InterceptedMethod> interceptedMethods;
+
+    // set if the target is a generated client, methods are addressed by the index of the client method
+    private final ClientDispatcher targetDispatcher;
+    private final InterceptedMethod[] indexedInterceptedMethods;
 
     public InterceptorInvocationHandler(final Class<?> restClientInterface,
                                         final Object target) {
@@ -48,7 +61,47 @@ public class InterceptorInvocationHandler implements InvocationHandler {
 
         BeanManager beanManager = CDI.current().getBeanManager();
         CreationalContext<?> creationalContext = beanManager.createCreationalContext(null);
-        this.interceptorChains = initInterceptorChains(beanManager, creationalContext, restClientInterface);
+        Map<Method, List<InterceptorInvocationContext.InterceptorInvocation>> interceptorChains =
+                initInterceptorChains(beanManager, creationalContext, restClientInterface);
+        this.intercepted = !interceptorChains.isEmpty();
+
+        if (target instanceof GeneratedClient) {
+            this.targetDispatcher = ((GeneratedClient) target).kumuluzClientDispatcher();
+            this.interceptedMethods = Collections.emptyMap();
+
+            Method[] clientMethods = GeneratedClientFactory.getClientMethods(restClientInterface);
+            this.indexedInterceptedMethods = new InterceptedMethod[clientMethods.length];
+            for (int i = 0; i < clientMethods.length; i++) {
+                List<InterceptorInvocationContext.InterceptorInvocation> chain = interceptorChains.get(clientMethods[i]);
+                if (chain != null) {
+                    indexedInterceptedMethods[i] = new InterceptedMethod(clientMethods[i], toArray(chain),
+                            InterceptedMethod.dispatching(targetDispatcher, i));
+                }
+            }
+        } else {
+            this.targetDispatcher = null;
+            this.indexedInterceptedMethods = null;
+
+            this.interceptedMethods = new HashMap<>();
+            for (Method method : restClientInterface.getMethods()) {
+                List<InterceptorInvocationContext.InterceptorInvocation> chain = interceptorChains.get(method);
+                interceptedMethods.put(method, new InterceptedMethod(method,
+                        chain == null ? NO_INTERCEPTORS : toArray(chain), InterceptedMethod.direct(method)));
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if any method of the rest client has interceptors. If not, the handler can be omitted and
+     * the rest client used directly.
+     */
+    public boolean isIntercepted() {
+        return intercepted;
+    }
+
+    private static InterceptorInvocationContext.InterceptorInvocation[] toArray(
+            List<InterceptorInvocationContext.InterceptorInvocation> chain) {
+        return chain.toArray(new InterceptorInvocationContext.InterceptorInvocation[0]);
     }
 
     private static List<Annotation> getBindings(Annotation[] annotations, BeanManager beanManager) {
@@ -108,23 +161,32 @@ public class InterceptorInvocationHandler implements InvocationHandler {
     }
 
     @Override
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    public Object dispatch(Object client, int methodIndex, Object[] args) throws Throwable {
+        if (targetDispatcher == null) {
+            throw new IllegalStateException("Rest client is not a generated client.");
+        }
 
-        List<InterceptorInvocationContext.InterceptorInvocation> chain = interceptorChains.get(method);
-        if (chain != null) {
+        InterceptedMethod interceptedMethod = indexedInterceptedMethods[methodIndex];
+        if (interceptedMethod != null) {
             // Invoke business method interceptors
-            return new InterceptorInvocationContext(target, method, args, chain).proceed();
-        } else {
-            try {
-                return method.invoke(target, args);
-            } catch (InvocationTargetException e) {
-                Throwable targetException = e.getTargetException();
-                if (targetException != null) {
-                    throw targetException;
-                }
+            return new InterceptorInvocationContext(target, interceptedMethod, args).proceed();
+        }
 
-                throw e;
-            }
+        return targetDispatcher.dispatch(target, methodIndex, args);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        InterceptedMethod interceptedMethod = interceptedMethods.get(method);
+        if (interceptedMethod == null) {
+            // Object methods
+            return InterceptedMethod.reflective(method).invoke(target, args);
+        }
+        if (interceptedMethod.getChain().length > 0) {
+            // Invoke business method interceptors
+            return new InterceptorInvocationContext(target, interceptedMethod, args).proceed();
         }
+        return interceptedMethod.getTargetInvocation().invoke(target, args);
     }
 }
@@ -20,6 +20,8 @@
  */
 package com.kumuluz.ee.rest.client.mp.cdi;
 
+import com.kumuluz.ee.rest.client.mp.engine.GeneratedClient;
+import com.kumuluz.ee.rest.client.mp.engine.GeneratedClientFactory;
 import com.kumuluz.ee.rest.client.mp.util.ProviderRegistrationUtil;
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
@@ -31,12 +33,16 @@ import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.enterprise.inject.spi.PassivationCapable;
 import javax.enterprise.util.AnnotationLiteral;
+import java.io.Closeable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Bean that creates a Rest Client using a {@link RestClientBuilder}.
@@ -46,6 +52,8 @@ import java.util.Set;
  */
 public class InvokerDelegateBean implements Bean<Object>, PassivationCapable {
 
+    private static final Logger LOG = Logger.getLogger(InvokerDelegateBean.class.getSimpleName());
+
     private Class<?> restClientType;
     private Class<? extends Annotation> scope;
 
@@ -79,13 +87,36 @@ public class InvokerDelegateBean implements Bean<Object>, PassivationCapable {
 
         Object restClient = restClientBuilder.build(restClientType);
 
-        return Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[]{restClientType},
-                new InterceptorInvocationHandler(restClientType, restClient));
+        InterceptorInvocationHandler interceptorHandler = new InterceptorInvocationHandler(restClientType, restClient);
+
+        if (!interceptorHandler.isIntercepted()) {
+            // no interceptors, the rest client does not need to be wrapped
+            return restClient;
+        }
+
+        if (restClient instanceof GeneratedClient) {
+            // generated client, dispatch to it directly instead of through a second proxy
+            Optional<?> generatedClient = GeneratedClientFactory.newInstance(restClientType, interceptorHandler);
+            if (generatedClient.isPresent()) {
+                return generatedClient.get();
+            }
+        }
+
+        // close is passed on to the rest client, so the bean can release it on destroy
+        return Proxy.newProxyInstance(this.getClass().getClassLoader(),
+                new Class[]{restClientType, Closeable.class, AutoCloseable.class}, interceptorHandler);
     }
 
     @Override
     public void destroy(Object instance, CreationalContext<Object> creationalContext) {
-
+        if (instance instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) instance).close();
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "Could not close rest client " + restClientType.getName(), e);
+            }
+        }
+        creationalContext.release();
     }
 
     @Override
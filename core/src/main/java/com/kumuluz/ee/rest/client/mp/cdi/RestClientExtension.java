@@ -20,7 +20,14 @@
  */
 package com.kumuluz.ee.rest.client.mp.cdi;
 
+import com.kumuluz.ee.rest.client.mp.executor.ExecutorServiceRegistry;
+import com.kumuluz.ee.rest.client.mp.transport.LocalConnector;
+import com.kumuluz.ee.rest.client.mp.util.ClientLifecycleUtil;
+import com.kumuluz.ee.rest.client.mp.util.IncomingHeadersUtil;
+import com.kumuluz.ee.rest.client.mp.util.JettyClientUtil;
 import com.kumuluz.ee.rest.client.mp.util.RegistrationConfigUtil;
+import com.kumuluz.ee.rest.client.mp.util.RestClientIndexUtil;
+import org.eclipse.microprofile.rest.client.annotation.RegisterClientHeaders;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 import javax.enterprise.context.*;
@@ -28,9 +35,10 @@ import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.*;
 import javax.inject.Singleton;
 import java.lang.annotation.Annotation;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * CDI {@link Extension} that adds dynamically created beans from interfaces annotated with {@link RegisterRestClient}.
@@ -40,37 +48,70 @@ import java.util.Set;
  */
 public class RestClientExtension implements Extension {
 
-    private final Set<AnnotatedType<?>> classes;
+    private final Map<Class<?>, AnnotatedType<?>> classes;
 
     public RestClientExtension() {
-        this.classes = new HashSet<>();
+        this.classes = new LinkedHashMap<>();
+    }
+
+    public void beforeBeanDiscovery(@Observes BeforeBeanDiscovery beforeBeanDiscovery, BeanManager beanManager) {
+        // interfaces indexed at compile time are registered directly, also if they are not in a bean archive
+        for (Class<?> indexedClient : RestClientIndexUtil.loadIndexedClients()) {
+            if (usesClientHeadersFactory(indexedClient)) {
+                IncomingHeadersUtil.markClientHeadersFactoryUsed();
+            }
+
+            this.addAnnotatedType(beanManager.createAnnotatedType(indexedClient));
+        }
     }
 
     public <T> void processAnnotatedType(@Observes @WithAnnotations(RegisterRestClient.class) ProcessAnnotatedType<T> anType) {
         Class<T> typeDef = anType.getAnnotatedType().getJavaClass();
 
+        if (this.classes.containsKey(typeDef)) {
+            // already registered from the index
+            anType.veto();
+            return;
+        }
+
         if (!typeDef.isInterface()) {
             throw new IllegalArgumentException("Rest client needs to be interface: " + typeDef);
         }
 
+        if (usesClientHeadersFactory(typeDef)) {
+            IncomingHeadersUtil.markClientHeadersFactoryUsed();
+        }
+
         this.addAnnotatedType(anType.getAnnotatedType());
         anType.veto();
     }
 
     public void afterBean(@Observes AfterBeanDiscovery afterBeanDiscovery) {
-        for (AnnotatedType<?> anType : this.classes) {
+        for (AnnotatedType<?> anType : this.classes.values()) {
 
             Class<? extends Annotation> scopeClass = resolveScope(anType.getJavaClass());
             afterBeanDiscovery.addBean(new InvokerDelegateBean(anType.getJavaClass(), scopeClass));
         }
     }
 
-    private void addAnnotatedType(AnnotatedType<?> annotatedType) {
-        if (this.classes.stream().map(AnnotatedType::getJavaClass).anyMatch(annotatedType.getJavaClass()::equals)) {
-            return;
+    public void beforeShutdown(@Observes BeforeShutdown beforeShutdown) {
+        ClientLifecycleUtil.closeAll();
+        JettyClientUtil.stopSharedResources();
+        ExecutorServiceRegistry.shutdown();
+        LocalConnector.shutdown();
+    }
+
+    private boolean usesClientHeadersFactory(Class<?> interfaceClass) {
+        if (interfaceClass.isAnnotationPresent(RegisterClientHeaders.class)) {
+            return true;
         }
 
-        this.classes.add(annotatedType);
+        return Arrays.stream(interfaceClass.getMethods())
+                .anyMatch(m -> m.isAnnotationPresent(RegisterClientHeaders.class));
+    }
+
+    private void addAnnotatedType(AnnotatedType<?> annotatedType) {
+        this.classes.putIfAbsent(annotatedType.getJavaClass(), annotatedType);
     }
 
     private Class<? extends Annotation> resolveScope(Class<?> interfaceClass) {
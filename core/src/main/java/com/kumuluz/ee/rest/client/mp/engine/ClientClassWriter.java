@@ -0,0 +1,171 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.engine;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Writes the class file of a generated rest client implementation. The class has a single field holding the
+ * {@link ClientDispatcher} and implements each client method by boxing the arguments and calling
+ * {@link ClientDispatcher#dispatch(Object, int, Object[])} with the constant index of the method. The class is
+ * written with ASM, which is relocated into the artifact. Method bodies contain no branches, so no stack map frames
+ * are needed.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+class ClientClassWriter {
+
+    private static final String DISPATCHER_FIELD = "dispatcher";
+    private static final String DISPATCHER_DESCRIPTOR = Type.getDescriptor(ClientDispatcher.class);
+    private static final String DISPATCH_DESCRIPTOR = MethodType.methodType(Object.class, Object.class, int.class,
+            Object[].class).toMethodDescriptorString();
+
+    private final String className;
+    private final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+    ClientClassWriter(String className) {
+        this.className = className.replace('.', '/');
+    }
+
+    /**
+     * Writes the class.
+     *
+     * @param interfaces        interfaces implemented by the class
+     * @param dispatchedMethods methods to implement, each dispatched with the index of its group
+     * @param methodIndices     dispatch index of each method
+     * @return class file bytes
+     */
+    byte[] write(List<Class<?>> interfaces, List<Method> dispatchedMethods, List<Integer> methodIndices) {
+        String[] interfaceNames = interfaces.stream().map(Type::getInternalName).toArray(String[]::new);
+
+        classWriter.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null,
+                Type.getInternalName(Object.class), interfaceNames);
+        classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, DISPATCHER_FIELD, DISPATCHER_DESCRIPTOR,
+                null, null).visitEnd();
+
+        writeConstructor();
+        writeDispatcherGetter();
+        for (int i = 0; i < dispatchedMethods.size(); i++) {
+            writeDispatchedMethod(dispatchedMethods.get(i), methodIndices.get(i));
+        }
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    private void writeConstructor() {
+        MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>",
+                "(" + DISPATCHER_DESCRIPTOR + ")V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, className, DISPATCHER_FIELD, DISPATCHER_DESCRIPTOR);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void writeDispatcherGetter() {
+        MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "kumuluzClientDispatcher",
+                "()" + DISPATCHER_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, DISPATCHER_FIELD, DISPATCHER_DESCRIPTOR);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void writeDispatchedMethod(Method method, int methodIndex) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?> returnType = method.getReturnType();
+
+        MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC, method.getName(),
+                Type.getMethodDescriptor(method), null, null);
+        mv.visitCode();
+
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, DISPATCHER_FIELD, DISPATCHER_DESCRIPTOR);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        pushInt(mv, methodIndex);
+        pushInt(mv, parameterTypes.length);
+        mv.visitTypeInsn(Opcodes.ANEWARRAY, Type.getInternalName(Object.class));
+
+        int slot = 1;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Type type = Type.getType(parameterTypes[i]);
+            mv.visitInsn(Opcodes.DUP);
+            pushInt(mv, i);
+            mv.visitVarInsn(type.getOpcode(Opcodes.ILOAD), slot);
+            if (parameterTypes[i].isPrimitive()) {
+                Class<?> boxed = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(boxed), "valueOf",
+                        MethodType.methodType(boxed, parameterTypes[i]).toMethodDescriptorString(), false);
+            }
+            mv.visitInsn(Opcodes.AASTORE);
+            slot += type.getSize();
+        }
+
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(ClientDispatcher.class), "dispatch",
+                DISPATCH_DESCRIPTOR, true);
+
+        if (returnType == void.class) {
+            mv.visitInsn(Opcodes.POP);
+            mv.visitInsn(Opcodes.RETURN);
+        } else if (returnType.isPrimitive()) {
+            Class<?> boxed = MethodType.methodType(returnType).wrap().returnType();
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(boxed));
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(boxed), returnType.getName() + "Value",
+                    MethodType.methodType(returnType).toMethodDescriptorString(), false);
+            mv.visitInsn(Type.getType(returnType).getOpcode(Opcodes.IRETURN));
+        } else {
+            if (returnType != Object.class) {
+                mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(returnType));
+            }
+            mv.visitInsn(Opcodes.ARETURN);
+        }
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.engine;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.rest.client.mp.util.RegistrationConfigUtil;
+
+import java.util.Optional;
+
+/**
+ * Engine used to implement rest client interfaces.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public enum ClientEngine {
+
+    /**
+     * Client is a {@link java.lang.reflect.Proxy} dispatching through an
+     * {@link java.lang.reflect.InvocationHandler}. Default for interfaces not processed at compile time.
+     */
+    PROXY("proxy"),
+
+    /**
+     * Client is a generated implementation class, either generated at compile time or when the first client is
+     * built. Each method dispatches directly to the precompiled invocation plan of the method. Falls back to
+     * {@link #PROXY} if the class cannot be generated.
+     */
+    GENERATED("generated");
+
+    private final String configValue;
+
+    ClientEngine(String configValue) {
+        this.configValue = configValue;
+    }
+
+    public static ClientEngine fromConfigValue(String configValue) {
+        for (ClientEngine engine : values()) {
+            if (engine.configValue.equalsIgnoreCase(configValue.trim())) {
+                return engine;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown rest client engine: " + configValue);
+    }
+
+    /**
+     * Returns the engine configured for the rest client, falling back to the global configuration. If no engine is
+     * configured, {@link #GENERATED} is used for interfaces with an implementation generated at compile time and
+     * {@link #PROXY} otherwise.
+     *
+     * @param apiClass rest client interface
+     * @return configured engine
+     */
+    public static ClientEngine forRegistration(Class<?> apiClass) {
+        Optional<String> engine = RegistrationConfigUtil.getConfigurationParameter(apiClass, "engine",
+                String.class, true);
+
+        if (!engine.isPresent()) {
+            engine = ConfigurationUtil.getInstance().get("kumuluzee.rest-client.engine");
+        }
+
+        return engine.map(ClientEngine::fromConfigValue)
+                .orElseGet(() -> GeneratedClientFactory.hasCompiledClient(apiClass) ? GENERATED : PROXY);
+    }
+}
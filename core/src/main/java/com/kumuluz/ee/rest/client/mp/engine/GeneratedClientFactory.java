@@ -0,0 +1,317 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.engine;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates and instantiates rest client implementation classes. A class is generated once per interface, in the
+ * package of the interface. Hidden classes are used when supported by the JVM. Implementation classes generated at
+ * compile time by {@code com.kumuluz.ee.rest.client.mp.processor.RestClientProcessor} are used instead, if present.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class GeneratedClientFactory {
+
+    private static final Logger LOG = Logger.getLogger(GeneratedClientFactory.class.getSimpleName());
+
+    private static final String CLASS_NAME_SUFFIX = "$$KumuluzClient";
+
+    public static final String COMPILED_CLASS_NAME_SUFFIX = "$$KumuluzRestClient";
+    public static final String COMPILED_METHOD_NAMES_FIELD = "KUMULUZ_METHOD_NAMES";
+    public static final String COMPILED_PARAMETER_TYPES_FIELD = "KUMULUZ_PARAMETER_TYPES";
+
+    private static final ClassValue<ClientMethods> CLIENT_METHODS = new ClassValue<ClientMethods>() {
+        @Override
+        protected ClientMethods computeValue(Class<?> type) {
+            return resolveClientMethods(type);
+        }
+    };
+
+    private static final ClassValue<Optional<MethodHandle>> COMPILED_CONSTRUCTORS =
+            new ClassValue<Optional<MethodHandle>>() {
+                @Override
+                protected Optional<MethodHandle> computeValue(Class<?> type) {
+                    try {
+                        return loadCompiled(type);
+                    } catch (Throwable e) {
+                        LOG.log(Level.WARNING, "Could not use compiled rest client implementation for " +
+                                type.getName() + ", it may be out of date.", e);
+                        return Optional.empty();
+                    }
+                }
+            };
+
+    private static final ClassValue<Optional<MethodHandle>> CONSTRUCTORS = new ClassValue<Optional<MethodHandle>>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> type) {
+            Optional<MethodHandle> compiled = COMPILED_CONSTRUCTORS.get(type);
+            if (compiled.isPresent()) {
+                return compiled;
+            }
+
+            try {
+                return Optional.of(generate(type));
+            } catch (Throwable e) {
+                LOG.log(Level.WARNING, "Could not generate rest client implementation for " + type.getName() +
+                        ", falling back to proxy.", e);
+                return Optional.empty();
+            }
+        }
+    };
+
+    /**
+     * Returns the methods of the rest client, indexed as in {@link ClientDispatcher#dispatch(Object, int, Object[])}.
+     * Contains the non-static methods of the interface and {@link Closeable#close()}.
+     *
+     * @param apiClass rest client interface
+     * @return client methods
+     */
+    public static Method[] getClientMethods(Class<?> apiClass) {
+        return CLIENT_METHODS.get(apiClass).methods.clone();
+    }
+
+    /**
+     * Returns true, if an implementation of the interface was generated at compile time.
+     *
+     * @param apiClass rest client interface
+     * @return true, if a compiled implementation is available
+     */
+    public static boolean hasCompiledClient(Class<?> apiClass) {
+        return COMPILED_CONSTRUCTORS.get(apiClass).isPresent();
+    }
+
+    /**
+     * Rethrows the throwable without wrapping it. Used by compiled implementations, which do not declare the checked
+     * exceptions of the dispatcher.
+     *
+     * @param throwable throwable to rethrow
+     * @return never returns, declared to allow {@code throw propagate(t)}
+     */
+    public static RuntimeException propagate(Throwable throwable) {
+        return GeneratedClientFactory.<RuntimeException>sneakyThrow(throwable);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    /**
+     * Creates an instance of the generated implementation of the interface.
+     *
+     * @param apiClass   rest client interface
+     * @param dispatcher target of the client methods
+     * @param <T>        type of the rest client
+     * @return client instance or empty, if the implementation could not be generated
+     */
+    public static <T> Optional<T> newInstance(Class<T> apiClass, ClientDispatcher dispatcher) {
+        Optional<MethodHandle> constructor = CONSTRUCTORS.get(apiClass);
+        if (!constructor.isPresent()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(apiClass.cast((Object) constructor.get().invokeExact(dispatcher)));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not instantiate generated rest client " + apiClass.getName(), e);
+        }
+    }
+
+    private static Optional<MethodHandle> loadCompiled(Class<?> apiClass) throws Throwable {
+        Class<?> compiledClass;
+        try {
+            compiledClass = Class.forName(apiClass.getName() + COMPILED_CLASS_NAME_SUFFIX, false,
+                    apiClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        String[] methodNames = (String[]) lookup.findStaticGetter(compiledClass, COMPILED_METHOD_NAMES_FIELD,
+                String[].class).invoke();
+        Class<?>[][] parameterTypes = (Class<?>[][]) lookup.findStaticGetter(compiledClass,
+                COMPILED_PARAMETER_TYPES_FIELD, Class[][].class).invoke();
+
+        // compiled methods are bound to the dispatch indices of the client methods
+        ClientMethods clientMethods = CLIENT_METHODS.get(apiClass);
+        int[] methodIndices = new int[methodNames.length];
+        for (int i = 0; i < methodNames.length; i++) {
+            Integer index = clientMethods.indices.get(signature(methodNames[i], parameterTypes[i]));
+            if (index == null) {
+                throw new IllegalStateException("Method " + methodNames[i] + Arrays.toString(parameterTypes[i]) +
+                        " not found in " + apiClass.getName());
+            }
+            methodIndices[i] = index;
+        }
+
+        MethodHandle constructor = lookup.findConstructor(compiledClass,
+                MethodType.methodType(void.class, ClientDispatcher.class, int[].class));
+
+        return Optional.of(MethodHandles.insertArguments(constructor, 1, (Object) methodIndices)
+                .asType(MethodType.methodType(Object.class, ClientDispatcher.class)));
+    }
+
+    private static MethodHandle generate(Class<?> apiClass) throws Throwable {
+        ClientMethods clientMethods = CLIENT_METHODS.get(apiClass);
+
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        interfaces.add(apiClass);
+        if (!Closeable.class.isAssignableFrom(apiClass)) {
+            interfaces.add(Closeable.class);
+        }
+        interfaces.add(GeneratedClient.class);
+
+        byte[] classBytes = new ClientClassWriter(apiClass.getName() + CLASS_NAME_SUFFIX)
+                .write(new ArrayList<>(interfaces), clientMethods.implementedMethods,
+                        clientMethods.implementedMethodIndices);
+
+        MethodHandles.Lookup lookup = defineClass(MethodHandles.privateLookupIn(apiClass, MethodHandles.lookup()),
+                classBytes);
+
+        return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, ClientDispatcher.class))
+                .asType(MethodType.methodType(Object.class, ClientDispatcher.class));
+    }
+
+    private static MethodHandles.Lookup defineClass(MethodHandles.Lookup lookup, byte[] classBytes)
+            throws Throwable {
+        Method defineHiddenClass = null;
+        Class<?> classOptionType = null;
+        try {
+            // Java 15+, called reflectively to keep Java 11 compatibility
+            classOptionType = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            defineHiddenClass = MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class,
+                    boolean.class, Array.newInstance(classOptionType, 0).getClass());
+        } catch (ClassNotFoundException | NoSuchMethodException ignored) {
+        }
+
+        if (defineHiddenClass != null) {
+            try {
+                return (MethodHandles.Lookup) defineHiddenClass.invoke(lookup, classBytes, true,
+                        Array.newInstance(classOptionType, 0));
+            } catch (InvocationTargetException e) {
+                // hidden classes require full privilege access, which is missing if the interface is in another
+                // module (e.g. loaded by another class loader), fall back to a regular class
+                if (!(e.getCause() instanceof IllegalAccessException)) {
+                    throw e.getCause();
+                }
+            }
+        }
+
+        return lookup.in(lookup.defineClass(classBytes));
+    }
+
+    private static ClientMethods resolveClientMethods(Class<?> apiClass) {
+        Map<String, Integer> indices = new HashMap<>();
+        List<Method> methods = new ArrayList<>();
+
+        // bridge methods only if there is no other method with the same signature
+        for (boolean bridges : new boolean[]{false, true}) {
+            for (Method method : apiClass.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers()) && method.isBridge() == bridges &&
+                        indices.putIfAbsent(signature(method), methods.size()) == null) {
+                    methods.add(method);
+                }
+            }
+        }
+
+        try {
+            Method close = Closeable.class.getMethod("close");
+            if (indices.putIfAbsent(signature(close), methods.size()) == null) {
+                methods.add(close);
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // each method is implemented with every descriptor declared in the hierarchy (covariant return types)
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        collectInterfaces(apiClass, hierarchy);
+        collectInterfaces(Closeable.class, hierarchy);
+
+        Set<String> descriptors = new HashSet<>();
+        List<Method> implementedMethods = new ArrayList<>();
+        List<Integer> implementedMethodIndices = new ArrayList<>();
+        for (Class<?> type : hierarchy) {
+            for (Method method : type.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers) || method.isSynthetic()) {
+                    continue;
+                }
+                Integer index = indices.get(signature(method));
+                if (index != null && descriptors.add(method.getName() +
+                        MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+                                .toMethodDescriptorString())) {
+                    implementedMethods.add(method);
+                    implementedMethodIndices.add(index);
+                }
+            }
+        }
+
+        return new ClientMethods(methods.toArray(new Method[0]), indices, implementedMethods,
+                implementedMethodIndices);
+    }
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> interfaces) {
+        if (interfaces.add(type)) {
+            for (Class<?> superInterface : type.getInterfaces()) {
+                collectInterfaces(superInterface, interfaces);
+            }
+        }
+    }
+
+    private static String signature(Method method) {
+        return signature(method.getName(), method.getParameterTypes());
+    }
+
+    private static String signature(String name, Class<?>[] parameterTypes) {
+        return name + Arrays.toString(parameterTypes);
+    }
+
+    private static class ClientMethods {
+
+        private final Method[] methods;
+        private final Map<String, Integer> indices;
+        private final List<Method> implementedMethods;
+        private final List<Integer> implementedMethodIndices;
+
+        ClientMethods(Method[] methods, Map<String, Integer> indices, List<Method> implementedMethods,
+                      List<Integer> implementedMethodIndices) {
+            this.methods = methods;
+            this.indices = indices;
+            this.implementedMethods = implementedMethods;
+            this.implementedMethodIndices = implementedMethodIndices;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.executor;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.rest.client.mp.util.RegistrationConfigUtil;
+
+import java.util.Optional;
+
+/**
+ * Configuration of an executor service used for asynchronous rest client invocations.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class ExecutorConfig {
+
+    private static final String CONFIG_PREFIX = "kumuluzee.rest-client.executor.";
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private final int poolSize;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+
+    public ExecutorConfig(int poolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Executor pool size must be positive, got " + poolSize);
+        }
+
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    /**
+     * Reads the configuration of the default executor service from the <code>kumuluzee.rest-client.executor</code>
+     * configuration namespace.
+     */
+    public static ExecutorConfig fromGlobalConfig() {
+        ConfigurationUtil config = ConfigurationUtil.getInstance();
+
+        return new ExecutorConfig(
+                config.getInteger(CONFIG_PREFIX + "pool-size").orElse(DEFAULT_POOL_SIZE),
+                config.getInteger(CONFIG_PREFIX + "queue-capacity").orElse(DEFAULT_QUEUE_CAPACITY),
+                config.get(CONFIG_PREFIX + "rejection-policy").map(RejectionPolicy::fromConfigValue)
+                        .orElse(RejectionPolicy.CALLER_RUNS));
+    }
+
+    /**
+     * Reads the configuration of a dedicated executor service for the rest client. Values not present in the rest
+     * client configuration are inherited from the default executor configuration.
+     *
+     * @param apiClass rest client interface
+     * @return configuration or empty, if the rest client does not configure a dedicated executor service
+     */
+    public static Optional<ExecutorConfig> forRegistration(Class<?> apiClass) {
+        Optional<Integer> poolSize = RegistrationConfigUtil.getConfigurationParameter(apiClass,
+                "executorPoolSize", Integer.class, true);
+        Optional<Integer> queueCapacity = RegistrationConfigUtil.getConfigurationParameter(apiClass,
+                "executorQueueCapacity", Integer.class, true);
+        Optional<RejectionPolicy> rejectionPolicy = RegistrationConfigUtil.getConfigurationParameter(apiClass,
+                "executorRejectionPolicy", String.class, true).map(RejectionPolicy::fromConfigValue);
+
+        if (!poolSize.isPresent() && !queueCapacity.isPresent() && !rejectionPolicy.isPresent()) {
+            return Optional.empty();
+        }
+
+        ExecutorConfig defaults = fromGlobalConfig();
+
+        return Optional.of(new ExecutorConfig(
+                poolSize.orElse(defaults.getPoolSize()),
+                queueCapacity.orElse(defaults.getQueueCapacity()),
+                rejectionPolicy.orElse(defaults.getRejectionPolicy())));
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.executor;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.rest.client.mp.util.VirtualThreadsUtil;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates and keeps track of the executor services used for asynchronous rest client invocations. The default executor
+ * service is shared by all rest clients, rest clients with executor configuration get a dedicated executor service.
+ * All executor services are shut down when the CDI container shuts down.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class ExecutorServiceRegistry {
+
+    private static final Logger LOG = Logger.getLogger(ExecutorServiceRegistry.class.getSimpleName());
+
+    private static final String DEFAULT_EXECUTOR_NAME = "default";
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private static final Map<String, ExecutorService> EXECUTORS = new ConcurrentHashMap<>();
+
+    private ExecutorServiceRegistry() {
+    }
+
+    public static ExecutorService getDefaultExecutorService() {
+        return EXECUTORS.computeIfAbsent(DEFAULT_EXECUTOR_NAME, name -> {
+            if (VirtualThreadsUtil.isEnabled()) {
+                return VirtualThreadsUtil.newVirtualThreadPerTaskExecutor();
+            }
+
+            return createManagedExecutor(name, ExecutorConfig.fromGlobalConfig());
+        });
+    }
+
+    /**
+     * Returns the executor service for the rest client. If the rest client does not configure a dedicated executor
+     * service, the default executor service is returned.
+     *
+     * @param apiClass rest client interface
+     * @return executor service
+     */
+    public static ExecutorService getExecutorService(Class<?> apiClass) {
+        Optional<ExecutorConfig> config = ExecutorConfig.forRegistration(apiClass);
+
+        if (!config.isPresent()) {
+            return getDefaultExecutorService();
+        }
+
+        return EXECUTORS.computeIfAbsent(apiClass.getName(), name -> createManagedExecutor(name, config.get()));
+    }
+
+    /**
+     * Shuts down all executor services. Tasks already submitted are given a chance to complete, the remaining tasks
+     * are cancelled once the timeout set with <code>kumuluzee.rest-client.executor.shutdown-timeout</code> expires.
+     */
+    public static void shutdown() {
+        long timeout = ConfigurationUtil.getInstance().getLong("kumuluzee.rest-client.executor.shutdown-timeout")
+                .orElse(DEFAULT_SHUTDOWN_TIMEOUT_MS);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        Map<String, ExecutorService> executors = new ConcurrentHashMap<>(EXECUTORS);
+        EXECUTORS.keySet().removeAll(executors.keySet());
+
+        executors.values().forEach(ExecutorService::shutdown);
+
+        for (Map.Entry<String, ExecutorService> executor : executors.entrySet()) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (!executor.getValue().awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                    LOG.warning("Executor " + executor.getKey() + " did not terminate in " + timeout +
+                            " ms, cancelling remaining tasks.");
+                    executor.getValue().shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.getValue().shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+
+            if (executor.getValue() instanceof ManagedExecutor) {
+                unregisterMBean((ManagedExecutor) executor.getValue());
+            }
+        }
+    }
+
+    private static ManagedExecutor createManagedExecutor(String name, ExecutorConfig config) {
+        ManagedExecutor executor = new ManagedExecutor(name, config);
+        registerMBean(executor);
+
+        return executor;
+    }
+
+    private static void registerMBean(ManagedExecutor executor) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = getObjectName(executor);
+
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(executor, objectName);
+            }
+        } catch (JMException e) {
+            LOG.log(Level.WARNING, "Could not register MBean for executor " + executor.getName(), e);
+        }
+    }
+
+    private static void unregisterMBean(ManagedExecutor executor) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = getObjectName(executor);
+
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            LOG.log(Level.FINE, "Could not unregister MBean for executor " + executor.getName(), e);
+        }
+    }
+
+    private static ObjectName getObjectName(ManagedExecutor executor) throws JMException {
+        return new ObjectName("com.kumuluz.ee.rest.client:type=Executor,name=" + ObjectName.quote(executor.getName()));
+    }
+}
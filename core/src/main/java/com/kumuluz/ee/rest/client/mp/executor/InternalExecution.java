@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Submits tasks which must never run on the submitting thread, e.g. continuations submitted from a connector thread.
+ * If a {@link ManagedExecutor} with the caller-runs rejection policy is saturated, the task is rejected with
+ * {@link RejectedExecutionException} instead of running on the submitting thread. Other executors, including
+ * executors set with {@link org.eclipse.microprofile.rest.client.RestClientBuilder#executorService}, run the task as
+ * they see fit.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public final class InternalExecution {
+
+    private InternalExecution() {
+    }
+
+    public static void execute(Executor executor, Runnable task) {
+        executor.execute((executor instanceof ManagedExecutor) ? new InternalTask(task) : task);
+    }
+
+    /**
+     * Task rejected by the {@link ManagedExecutor} instead of running it on the submitting thread.
+     */
+    static class InternalTask implements Runnable {
+
+        private final Runnable task;
+
+        InternalTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
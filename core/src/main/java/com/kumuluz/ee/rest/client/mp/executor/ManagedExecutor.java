@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.executor;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread pool with a bounded queue, named threads and metrics, used for asynchronous rest client invocations.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class ManagedExecutor extends ThreadPoolExecutor implements ManagedExecutorMXBean {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final String name;
+    private final LongAdder rejectedTasks;
+
+    public ManagedExecutor(String name, ExecutorConfig config) {
+        super(config.getPoolSize(), config.getPoolSize(), KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                createQueue(config.getQueueCapacity()), new NamedThreadFactory("rest-client-" + name));
+
+        this.name = name;
+        this.rejectedTasks = new LongAdder();
+
+        allowCoreThreadTimeOut(true);
+        setRejectedExecutionHandler(createRejectionHandler(config.getRejectionPolicy()));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getQueueSize() {
+        return getQueue().size();
+    }
+
+    @Override
+    public int getQueueRemainingCapacity() {
+        return getQueue().remainingCapacity();
+    }
+
+    @Override
+    public long getRejectedTaskCount() {
+        return rejectedTasks.sum();
+    }
+
+    private RejectedExecutionHandler createRejectionHandler(RejectionPolicy rejectionPolicy) {
+        RejectedExecutionHandler delegate = (rejectionPolicy == RejectionPolicy.CALLER_RUNS) ?
+                new CallerRunsPolicy() : new AbortPolicy();
+
+        return (runnable, executor) -> {
+            rejectedTasks.increment();
+            if (runnable instanceof InternalExecution.InternalTask) {
+                // internal tasks must not run on the submitting thread
+                throw new RejectedExecutionException("Internal task rejected, the executor is saturated.");
+            }
+            delegate.rejectedExecution(runnable, executor);
+        };
+    }
+
+    private static BlockingQueue<Runnable> createQueue(int capacity) {
+        if (capacity <= 0) {
+            return new SynchronousQueue<>();
+        }
+
+        return new LinkedBlockingQueue<>(capacity);
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger threadNumber;
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+            this.threadNumber = new AtomicInteger(1);
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
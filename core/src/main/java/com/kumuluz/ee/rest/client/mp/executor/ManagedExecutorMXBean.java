@@ -18,34 +18,29 @@
  *  software. See the License for the specific language governing permissions and
  *  limitations under the License.
  */
-package com.kumuluz.ee.rest.client.mp.util;
-
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+package com.kumuluz.ee.rest.client.mp.executor;
 
 /**
- * Singleton for default {@link ExecutorService}.
+ * Metrics of an executor service used by the rest clients, exposed through JMX.
  *
  * @author Urban Malc
- * @since 1.1
+ * @since 2.1.0
  */
-public class DefaultExecutorServiceUtil {
+public interface ManagedExecutorMXBean {
+
+    String getName();
+
+    int getCorePoolSize();
+
+    int getPoolSize();
+
+    int getActiveCount();
 
-    private DefaultExecutorServiceUtil() {
-    }
+    int getQueueSize();
 
-    private static ExecutorService executorService = null;
+    int getQueueRemainingCapacity();
 
-    public static ExecutorService getExecutorService() {
-        if (executorService == null) {
-            initialize();
-        }
-        return executorService;
-    }
+    long getCompletedTaskCount();
 
-    private static synchronized void initialize() {
-        if (executorService == null) {
-            executorService = Executors.newFixedThreadPool(10);
-        }
-    }
+    long getRejectedTaskCount();
 }
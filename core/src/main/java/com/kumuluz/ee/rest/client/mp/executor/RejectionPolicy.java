@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.executor;
+
+/**
+ * Policy applied when a task is submitted to a {@link ManagedExecutor} with a full queue.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public enum RejectionPolicy {
+
+    /**
+     * Task is rejected with {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    ABORT("abort"),
+
+    /**
+     * Task is executed on the thread that submitted it, which slows down the producer. Default.
+     */
+    CALLER_RUNS("caller-runs");
+
+    private final String configValue;
+
+    RejectionPolicy(String configValue) {
+        this.configValue = configValue;
+    }
+
+    public static RejectionPolicy fromConfigValue(String configValue) {
+        for (RejectionPolicy policy : values()) {
+            if (policy.configValue.equalsIgnoreCase(configValue.trim())) {
+                return policy;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown rejection policy: " + configValue);
+    }
+}
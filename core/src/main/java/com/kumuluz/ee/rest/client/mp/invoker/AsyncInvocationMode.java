@@ -0,0 +1,59 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+/**
+ * Execution mode of rest client methods returning {@link java.util.concurrent.CompletionStage}.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public enum AsyncInvocationMode {
+
+    /**
+     * Request is executed synchronously on a thread of the executor service. Filters and interceptors run on the
+     * executor thread, as required by the MicroProfile Rest Client specification. Default.
+     */
+    EXECUTOR("executor"),
+
+    /**
+     * Request is sent using the asynchronous API of the connector and no thread is held while waiting for the
+     * response. Exception mapping and entity decoding are offloaded to the executor service once the response
+     * arrives. Request and response filters run on connector threads.
+     */
+    NON_BLOCKING("non-blocking");
+
+    private final String configValue;
+
+    AsyncInvocationMode(String configValue) {
+        this.configValue = configValue;
+    }
+
+    public static AsyncInvocationMode fromConfigValue(String configValue) {
+        for (AsyncInvocationMode mode : values()) {
+            if (mode.configValue.equalsIgnoreCase(configValue.trim())) {
+                return mode;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown async mode: " + configValue);
+    }
+}
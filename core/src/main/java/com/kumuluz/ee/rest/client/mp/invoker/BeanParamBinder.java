@@ -0,0 +1,223 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import javax.ws.rs.*;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds the members of a {@link BeanParam} argument to the request being built. Annotated fields and getters of the
+ * bean class (and its superclasses) are resolved to {@link MethodHandle}s once per class.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class BeanParamBinder {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<BeanParamBinder> BINDERS = new ClassValue<BeanParamBinder>() {
+        @Override
+        protected BeanParamBinder computeValue(Class<?> type) {
+            return new BeanParamBinder(type);
+        }
+    };
+
+    private final Class<?> beanClass;
+    private final Member[] members;
+
+    private BeanParamBinder(Class<?> beanClass) {
+        this.beanClass = beanClass;
+        this.members = resolveMembers(beanClass);
+    }
+
+    /**
+     * Returns the binder for the bean parameter class.
+     *
+     * @param beanClass class of the bean parameter
+     * @return binder
+     */
+    public static BeanParamBinder forClass(Class<?> beanClass) {
+        return BINDERS.get(beanClass);
+    }
+
+    public void bind(ParamInfo paramInfo, Object instance) {
+        if (instance == null) {
+            return;
+        }
+
+        for (Member member : members) {
+            member.bind(paramInfo, instance);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BeanParamBinder[" + beanClass.getName() + "]";
+    }
+
+    private static Member[] resolveMembers(Class<?> beanClass) {
+        List<Member> members = new ArrayList<>();
+
+        for (Class<?> c = beanClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                Member member = createMember(field, field.getType());
+                if (member != null) {
+                    members.add(member);
+                }
+            }
+            for (Method method : c.getDeclaredMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 ||
+                        void.class.equals(method.getReturnType()) || method.isBridge()) {
+                    continue;
+                }
+                Member member = createMember(method, method.getReturnType());
+                if (member != null) {
+                    members.add(member);
+                }
+            }
+        }
+
+        return members.toArray(new Member[0]);
+    }
+
+    private static Member createMember(AccessibleObject accessibleObject, Class<?> type) {
+        for (Annotation annotation : accessibleObject.getAnnotations()) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+
+            if (QueryParam.class.equals(annotationType)) {
+                return new Member(ParamBinder.Kind.QUERY, ((QueryParam) annotation).value(),
+                        createAccessor(accessibleObject), null);
+            }
+            if (HeaderParam.class.equals(annotationType)) {
+                return new Member(ParamBinder.Kind.HEADER, ((HeaderParam) annotation).value(),
+                        createAccessor(accessibleObject), null);
+            }
+            if (CookieParam.class.equals(annotationType)) {
+                return new Member(ParamBinder.Kind.COOKIE, ((CookieParam) annotation).value(),
+                        createAccessor(accessibleObject), null);
+            }
+            if (PathParam.class.equals(annotationType)) {
+                return new Member(ParamBinder.Kind.PATH, ((PathParam) annotation).value(),
+                        createAccessor(accessibleObject), null);
+            }
+            if (FormParam.class.equals(annotationType)) {
+                return new Member(ParamBinder.Kind.FORM, ((FormParam) annotation).value(),
+                        createAccessor(accessibleObject), null);
+            }
+            if (BeanParam.class.equals(annotationType)) {
+                return new Member(ParamBinder.Kind.BEAN, null, createAccessor(accessibleObject), type);
+            }
+        }
+
+        return null;
+    }
+
+    private static MethodHandle createAccessor(AccessibleObject accessibleObject) {
+        Class<?> declaringClass = (accessibleObject instanceof Field) ?
+                ((Field) accessibleObject).getDeclaringClass() : ((Method) accessibleObject).getDeclaringClass();
+
+        MethodHandle handle;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            handle = unreflect(lookup, accessibleObject);
+        } catch (IllegalAccessException e) {
+            try {
+                accessibleObject.setAccessible(true);
+                handle = unreflect(MethodHandles.lookup(), accessibleObject);
+            } catch (IllegalAccessException | RuntimeException e1) {
+                throw new IllegalArgumentException("Could not access bean parameter member " + accessibleObject, e1);
+            }
+        }
+
+        return handle.asType(ACCESSOR_TYPE);
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, AccessibleObject accessibleObject)
+            throws IllegalAccessException {
+        if (accessibleObject instanceof Field) {
+            return lookup.unreflectGetter((Field) accessibleObject);
+        } else {
+            return lookup.unreflect((Method) accessibleObject);
+        }
+    }
+
+    private static class Member {
+
+        private final ParamBinder.Kind kind;
+        private final String name;
+        private final MethodHandle accessor;
+        private final Class<?> nestedBeanClass;
+
+        Member(ParamBinder.Kind kind, String name, MethodHandle accessor, Class<?> nestedBeanClass) {
+            this.kind = kind;
+            this.name = name;
+            this.accessor = accessor;
+            this.nestedBeanClass = nestedBeanClass;
+        }
+
+        void bind(ParamInfo paramInfo, Object instance) {
+            Object value;
+            try {
+                value = (Object) accessor.invokeExact(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not read bean parameter " + name, e);
+            }
+
+            switch (kind) {
+                case QUERY:
+                    paramInfo.addQueryParameter(name, value);
+                    break;
+                case HEADER:
+                    paramInfo.addHeader(name, (String) value);
+                    break;
+                case COOKIE:
+                    paramInfo.addCookieParameter(name, value);
+                    break;
+                case PATH:
+                    paramInfo.addPathParameter(name, value);
+                    break;
+                case FORM:
+                    paramInfo.addFormDataParameter(name, value);
+                    break;
+                case BEAN:
+                    forClass(nestedBeanClass).bind(paramInfo, value);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported bean parameter kind " + kind);
+            }
+        }
+    }
+}
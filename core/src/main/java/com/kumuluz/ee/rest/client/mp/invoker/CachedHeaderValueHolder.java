@@ -0,0 +1,142 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import com.kumuluz.ee.rest.client.mp.annotations.CachedHeaderValue;
+import com.kumuluz.ee.rest.client.mp.executor.InternalExecution;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches a computed header value for a configured time. Only one thread computes the value at a time, other threads
+ * wait for it only if no valid value exists. If refresh ahead is configured, the value is recomputed on the provided
+ * executor before it expires and threads keep using the current value in the meantime.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class CachedHeaderValueHolder<T> {
+
+    private static final Logger LOG = Logger.getLogger(CachedHeaderValueHolder.class.getSimpleName());
+
+    /**
+     * Computes the value.
+     *
+     * @param <A> type of the argument
+     * @param <T> type of the value
+     */
+    @FunctionalInterface
+    public interface Loader<A, T> {
+        T load(A argument) throws Throwable;
+    }
+
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final Object lock;
+    private final AtomicBoolean refreshing;
+
+    private volatile Entry<T> entry;
+
+    public CachedHeaderValueHolder(CachedHeaderValue config) {
+        this.ttlNanos = config.unit().toNanos(config.ttl());
+        this.refreshAheadNanos = config.unit().toNanos(config.refreshAhead());
+        this.lock = new Object();
+        this.refreshing = new AtomicBoolean(false);
+    }
+
+    /**
+     * Returns the cached value or computes it, if no valid value exists.
+     *
+     * @param loader          computes the value
+     * @param argument        argument of the loader
+     * @param refreshExecutor executor used for refreshing the value ahead of expiry
+     * @return cached value
+     */
+    public <A> T get(Loader<A, T> loader, A argument, Executor refreshExecutor) throws Throwable {
+        Entry<T> current = this.entry;
+        long now = System.nanoTime();
+
+        if (current != null && current.isValid(now)) {
+            if (refreshAheadNanos > 0 && current.expiresAt - now <= refreshAheadNanos) {
+                refreshAsync(loader, argument, refreshExecutor);
+            }
+            return current.value;
+        }
+
+        synchronized (lock) {
+            current = this.entry;
+            if (current != null && current.isValid(System.nanoTime())) {
+                return current.value;
+            }
+
+            return load(loader, argument);
+        }
+    }
+
+    private <A> void refreshAsync(Loader<A, T> loader, A argument, Executor refreshExecutor) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            InternalExecution.execute(refreshExecutor, () -> {
+                try {
+                    synchronized (lock) {
+                        load(loader, argument);
+                    }
+                } catch (Throwable e) {
+                    // current value is used until it expires
+                    LOG.log(Level.FINE, "Could not refresh cached header value.", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private <A> T load(Loader<A, T> loader, A argument) throws Throwable {
+        T value = loader.load(argument);
+        this.entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+
+        return value;
+    }
+
+    private static class Entry<T> {
+
+        private final T value;
+        private final long expiresAt;
+
+        Entry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isValid(long now) {
+            return now - expiresAt < 0;
+        }
+    }
+}
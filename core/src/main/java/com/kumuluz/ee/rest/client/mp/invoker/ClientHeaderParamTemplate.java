@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Headers defined with {@link org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam} on a rest client
+ * method and its interface. Interface and method annotations are merged when the rest client is built, constant values
+ * are stored as is and only the method references are evaluated on each invocation.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class ClientHeaderParamTemplate {
+
+    private static final ClientHeaderParamTemplate EMPTY = new ClientHeaderParamTemplate(Collections.emptyMap(),
+            Collections.emptyList());
+
+    private final String[] constantHeaderNames;
+    private final List<String>[] constantHeaderValues;
+    private final HeaderGenerator[] generators;
+
+    public ClientHeaderParamTemplate(Map<String, List<String>> constantHeaders, List<HeaderGenerator> generators) {
+        @SuppressWarnings("unchecked")
+        List<String>[] headerValues = (List<String>[]) new List<?>[constantHeaders.size()];
+
+        this.constantHeaderNames = new String[constantHeaders.size()];
+        this.constantHeaderValues = headerValues;
+
+        int i = 0;
+        for (Map.Entry<String, List<String>> header : constantHeaders.entrySet()) {
+            constantHeaderNames[i] = header.getKey();
+            constantHeaderValues[i] = Collections.unmodifiableList(header.getValue());
+            i++;
+        }
+
+        this.generators = generators.toArray(new HeaderGenerator[0]);
+    }
+
+    public static ClientHeaderParamTemplate empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Adds the headers to the outgoing headers.
+     *
+     * @param proxy           rest client instance
+     * @param headers         outgoing headers
+     * @param refreshExecutor executor used for refreshing cached values
+     */
+    public void apply(Object proxy, MultivaluedMap<String, String> headers, Executor refreshExecutor)
+            throws Throwable {
+        for (int i = 0; i < constantHeaderNames.length; i++) {
+            headers.addAll(constantHeaderNames[i], constantHeaderValues[i]);
+        }
+
+        for (HeaderGenerator generator : generators) {
+            generator.apply(proxy, headers, refreshExecutor);
+        }
+    }
+
+    public boolean isEmpty() {
+        return constantHeaderNames.length == 0 && generators.length == 0;
+    }
+}
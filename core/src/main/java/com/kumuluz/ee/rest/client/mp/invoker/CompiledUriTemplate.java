@@ -0,0 +1,241 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import com.kumuluz.ee.rest.client.mp.util.InterfaceValidatorUtil;
+import org.glassfish.jersey.uri.UriComponent;
+
+import javax.ws.rs.ext.ParamConverter;
+import javax.ws.rs.ext.ParamConverterProvider;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+/**
+ * Request URI template of a rest client method, compiled from the base URI and the {@link javax.ws.rs.Path} values of
+ * the interface and the method. Literal parts are encoded when the template is compiled, only path and query parameter
+ * values are encoded when the URI is expanded.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class CompiledUriTemplate {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private final String template;
+    private final String[] literals;
+    private final String[] parameterNames;
+    private final int literalsLength;
+
+    private CompiledUriTemplate(String template, String[] literals, String[] parameterNames) {
+        this.template = template;
+        this.literals = literals;
+        this.parameterNames = parameterNames;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalsLength = length;
+    }
+
+    /**
+     * Compiles the template. Path parameters are parsed the same way as in {@link InterfaceValidatorUtil}, regular
+     * expressions of the parameters are ignored.
+     *
+     * @param template URI template, scheme and authority are kept as they are
+     * @return compiled template
+     */
+    public static CompiledUriTemplate compile(String template) {
+        int authorityEnd = 0;
+        int schemeEnd = template.indexOf("://");
+        if (schemeEnd >= 0) {
+            authorityEnd = template.indexOf('/', schemeEnd + 3);
+            if (authorityEnd < 0) {
+                authorityEnd = template.length();
+            }
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> parameterNames = new ArrayList<>();
+
+        Matcher matcher = InterfaceValidatorUtil.getPathParamMatcher(template);
+        int position = 0;
+        while (matcher.find()) {
+            literals.add(encodeLiteral(template, position, matcher.start(), authorityEnd));
+            parameterNames.add(matcher.group(1));
+            position = matcher.end();
+        }
+        literals.add(encodeLiteral(template, position, template.length(), authorityEnd));
+
+        return new CompiledUriTemplate(template, literals.toArray(new String[0]),
+                parameterNames.toArray(new String[0]));
+    }
+
+    /**
+     * Expands the template into the request URI.
+     *
+     * @param pathParameters     values of the path parameters, converted with the given providers before encoding
+     * @param queryParameters    values of the query parameters, parameters with {@code null} values are skipped
+     * @param converterProviders registered param converter providers
+     * @return request URI
+     * @throws IllegalArgumentException if a path parameter has no value
+     */
+    public URI expand(Map<String, Object> pathParameters, Map<String, Object> queryParameters,
+                      ParamConverterProvider[] converterProviders) {
+
+        Object[] pathValues = new Object[parameterNames.length];
+        for (int i = 0; i < parameterNames.length; i++) {
+            pathValues[i] = pathParameters.get(parameterNames[i]);
+        }
+
+        StringBuilder uri = new StringBuilder(literalsLength + 16 * (parameterNames.length + queryParameters.size()));
+        appendPath(uri, pathValues, converterProviders);
+
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : queryParameters.entrySet()) {
+            first = appendQueryParameter(uri, first, entry.getKey(), entry.getValue());
+        }
+
+        return URI.create(uri.toString());
+    }
+
+    /**
+     * Expands the template into the request URI. Query parameters in the slots of the parameter info are added in
+     * the order of the slots, followed by the query parameters bound by name.
+     *
+     * @param pathValues         values of the template variables, in the order of {@link #getParameterName(int)}
+     * @param paramInfo          parameters of the request
+     * @param converterProviders registered param converter providers
+     * @return request URI
+     * @throws IllegalArgumentException if a path parameter has no value
+     */
+    public URI expand(Object[] pathValues, ParamInfo paramInfo, ParamConverterProvider[] converterProviders) {
+        Map<String, Object> queryParameters = paramInfo.getQueryParameterValues();
+        int queryCount = paramInfo.getQuerySlotCount();
+
+        StringBuilder uri = new StringBuilder(literalsLength +
+                16 * (parameterNames.length + queryCount + queryParameters.size()));
+        appendPath(uri, pathValues, converterProviders);
+
+        boolean first = true;
+        for (int i = 0; i < queryCount; i++) {
+            if (!paramInfo.isQuerySlotOverridden(i)) {
+                first = appendQueryParameter(uri, first, paramInfo.getQuerySlotName(i),
+                        paramInfo.getQuerySlotValue(i));
+            }
+        }
+        for (Map.Entry<String, Object> entry : queryParameters.entrySet()) {
+            first = appendQueryParameter(uri, first, entry.getKey(), entry.getValue());
+        }
+
+        return URI.create(uri.toString());
+    }
+
+    public int getParameterCount() {
+        return parameterNames.length;
+    }
+
+    public String getParameterName(int index) {
+        return parameterNames[index];
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    private void appendPath(StringBuilder uri, Object[] pathValues, ParamConverterProvider[] converterProviders) {
+        uri.append(literals[0]);
+        for (int i = 0; i < parameterNames.length; i++) {
+            Object value = pathValues[i];
+            if (converterProviders.length > 0) {
+                value = convert(value, converterProviders);
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("The template variable '" + parameterNames[i] +
+                        "' has no value");
+            }
+
+            if (!appendInteger(uri, value)) {
+                uri.append(UriComponent.encode(value.toString(), UriComponent.Type.PATH_SEGMENT));
+            }
+            uri.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Appends the query parameter, parameters with {@code null} values are skipped.
+     *
+     * @return true, if no query parameter was appended yet
+     */
+    private static boolean appendQueryParameter(StringBuilder uri, boolean first, String name, Object value) {
+        if (value == null) {
+            return first;
+        }
+
+        uri.append(first ? '?' : '&');
+        uri.append(UriComponent.contextualEncode(name, UriComponent.Type.QUERY_PARAM)).append('=');
+        if (!appendInteger(uri, value)) {
+            uri.append(UriComponent.contextualEncode(value.toString(), UriComponent.Type.QUERY_PARAM));
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object convert(Object value, ParamConverterProvider[] converterProviders) {
+        for (ParamConverterProvider provider : converterProviders) {
+            ParamConverter converter = provider.getConverter(String.class, Object.class, NO_ANNOTATIONS);
+            value = converter.toString(value);
+        }
+        return value;
+    }
+
+    private static boolean appendInteger(StringBuilder uri, Object value) {
+        // integral values never need to be encoded
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            uri.append(((Number) value).longValue());
+            return true;
+        }
+        return false;
+    }
+
+    private static String encodeLiteral(String template, int start, int end, int authorityEnd) {
+        if (start >= end) {
+            return "";
+        }
+        if (end <= authorityEnd) {
+            return template.substring(start, end);
+        }
+
+        int pathStart = Math.max(start, authorityEnd);
+        return template.substring(start, pathStart) +
+                UriComponent.contextualEncode(template.substring(pathStart, end), UriComponent.Type.PATH);
+    }
+}
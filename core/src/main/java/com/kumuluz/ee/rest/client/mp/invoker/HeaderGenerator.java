@@ -0,0 +1,148 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import com.kumuluz.ee.rest.client.mp.annotations.CachedHeaderValue;
+import com.kumuluz.ee.rest.client.mp.util.CachedHeaderValueUtil;
+import org.eclipse.microprofile.rest.client.RestClientDefinitionException;
+
+import javax.ws.rs.core.MultivaluedMap;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * Computes a header value by calling the method referenced in
+ * {@link org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam}. The referenced method is resolved to a
+ * {@link MethodHandle} when the rest client is built.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class HeaderGenerator {
+
+    private static final MethodType GENERATOR_TYPE = MethodType.methodType(Object.class, Object.class, String.class);
+
+    private final String headerName;
+    private final boolean required;
+    private final Method generatorMethod;
+    private final MethodHandle generator;
+    private final CachedHeaderValueHolder<String[]> cachedValue;
+    private final CachedHeaderValueHolder.Loader<Object, String[]> loader;
+
+    public HeaderGenerator(String headerName, boolean required, Method generatorMethod) {
+        this.headerName = headerName;
+        this.required = required;
+        this.generatorMethod = generatorMethod;
+        this.generator = createHandle(generatorMethod);
+
+        CachedHeaderValue cachedHeaderValue = generatorMethod.getAnnotation(CachedHeaderValue.class);
+        this.cachedValue = (cachedHeaderValue != null) ?
+                CachedHeaderValueUtil.getHolder(Arrays.asList(generatorMethod, headerName), cachedHeaderValue) :
+                null;
+        this.loader = this::generate;
+    }
+
+    /**
+     * Computes the header value and adds it to the headers.
+     *
+     * @param proxy           rest client instance, used as receiver for interface default methods
+     * @param headers         outgoing headers
+     * @param refreshExecutor executor used for refreshing cached values
+     */
+    public void apply(Object proxy, MultivaluedMap<String, String> headers, Executor refreshExecutor)
+            throws Throwable {
+        String[] values;
+        try {
+            values = (cachedValue != null) ? cachedValue.get(loader, proxy, refreshExecutor) : generate(proxy);
+        } catch (Throwable e) {
+            if (required) {
+                throw e;
+            }
+            return;
+        }
+
+        headers.addAll(headerName, Arrays.asList(values));
+    }
+
+    public String[] generate(Object proxy) throws Throwable {
+        Object returnObject = (Object) generator.invokeExact(proxy, headerName);
+
+        if (returnObject == null) {
+            throw new IllegalArgumentException("Method reference not found or returned null");
+        }
+
+        if (returnObject instanceof String) {
+            return new String[]{(String) returnObject};
+        } else if (returnObject instanceof String[]) {
+            return (String[]) returnObject;
+        } else {
+            throw new IllegalArgumentException("Method returned object that is neither String or String[]");
+        }
+    }
+
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public Method getGeneratorMethod() {
+        return generatorMethod;
+    }
+
+    public boolean isCached() {
+        return cachedValue != null;
+    }
+
+    private static MethodHandle createHandle(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        MethodHandle handle;
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = lookup.unreflect(method);
+                // static methods do not need the receiver
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            } else {
+                // default method, invoked on the rest client instance
+                handle = lookup.unreflectSpecial(method, declaringClass);
+            }
+        } catch (IllegalAccessException e) {
+            throw new RestClientDefinitionException("Could not access method referenced in ClientHeaderParam: " +
+                    method, e);
+        }
+
+        if (method.getParameterCount() == 0) {
+            handle = MethodHandles.dropArguments(handle, 1, String.class);
+        }
+
+        return handle.asType(GENERATOR_TYPE);
+    }
+}
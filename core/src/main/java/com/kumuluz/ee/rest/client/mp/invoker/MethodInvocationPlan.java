@@ -0,0 +1,514 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import com.kumuluz.ee.rest.client.mp.annotations.CachedHeaderValue;
+import com.kumuluz.ee.rest.client.mp.util.CachedHeaderValueUtil;
+import com.kumuluz.ee.rest.client.mp.util.ClientHeaderParamUtil;
+import com.kumuluz.ee.rest.client.mp.util.IncomingHeadersUtil;
+import com.kumuluz.ee.rest.client.mp.util.InterfaceValidatorUtil;
+import com.kumuluz.ee.rest.client.mp.util.RestClientIndexUtil;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.rest.client.annotation.RegisterClientHeaders;
+import org.eclipse.microprofile.rest.client.ext.ClientHeadersFactory;
+import org.glassfish.jersey.media.multipart.FormDataParam;
+
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.CDI;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.ws.rs.*;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ParamConverterProvider;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Immutable description of a rest client method invocation. Everything that can be determined from the interface
+ * definition alone is resolved once when the rest client is built, so that an invocation only needs to bind the
+ * arguments and send the request.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class MethodInvocationPlan {
+
+    private static final ThreadLocal<ParamInfo> PARAM_INFO_POOL = ThreadLocal.withInitial(ParamInfo::new);
+
+    private final Method method;
+    private final String httpMethod;
+    private final CompiledUriTemplate uriTemplate;
+    private final String subResourceUrl;
+    private volatile Map<Method, MethodInvocationPlan> subResourcePlans;
+    private final ParamBinder[] paramBinders;
+    private final String[] pathSlotNames;
+    private final String[] querySlotNames;
+    private final String[] cookieSlotNames;
+    // path slot of each URI template variable, -1 if the method has no parameter with its name
+    private final int[] templateSlots;
+    private final String contentType;
+    private final boolean contentTypeDeclared;
+    private final String accept;
+    private final long timeoutMillis;
+    private final ClientHeaderParamTemplate clientHeaderParams;
+    private final RegisterClientHeaders registerClientHeaders;
+    private final ClientHeadersFactory clientHeadersFactory;
+    private final CachedHeaderValueHolder<MultivaluedMap<String, String>> cachedFactoryHeaders;
+    private final Type returnType;
+    private final Type asyncResponseType;
+    private final boolean rawResponse;
+    private final GenericType<?> responseEntityType;
+    private final List<Class<?>> exceptionTypes;
+
+    private MethodInvocationPlan(Method method, String baseURI,
+                                 Map<Class<?>, ClientHeadersFactory> clientHeadersFactories) {
+        this.method = method;
+        this.httpMethod = determineMethod(method);
+
+        StringBuilder serverUrl = new StringBuilder(baseURI);
+        addPathValue(serverUrl, method.getDeclaringClass().getAnnotation(Path.class));
+        addPathValue(serverUrl, method.getAnnotation(Path.class));
+        this.uriTemplate = CompiledUriTemplate.compile(serverUrl.toString());
+
+        if (isSubResource(method.getReturnType())) {
+            addPathValue(serverUrl, method.getReturnType().getAnnotation(Path.class));
+            this.subResourceUrl = serverUrl.toString();
+        } else {
+            this.subResourceUrl = null;
+        }
+
+        Map<String, Integer> pathSlots = new LinkedHashMap<>();
+        Map<String, Integer> querySlots = new LinkedHashMap<>();
+        Map<String, Integer> cookieSlots = new LinkedHashMap<>();
+        this.paramBinders = determineParamBinders(method, pathSlots, querySlots, cookieSlots);
+        this.pathSlotNames = pathSlots.keySet().toArray(new String[0]);
+        this.querySlotNames = querySlots.keySet().toArray(new String[0]);
+        this.cookieSlotNames = cookieSlots.keySet().toArray(new String[0]);
+        this.templateSlots = new int[uriTemplate.getParameterCount()];
+        for (int i = 0; i < templateSlots.length; i++) {
+            templateSlots[i] = pathSlots.getOrDefault(uriTemplate.getParameterName(i), -1);
+        }
+
+        Consumes consumes = getMethodOrClassAnnotation(method, Consumes.class);
+        Produces produces = getMethodOrClassAnnotation(method, Produces.class);
+        this.contentTypeDeclared = consumes != null;
+        this.contentType = (consumes != null) ? String.join(",", consumes.value()) : MediaType.APPLICATION_JSON;
+        this.accept = (produces != null) ? String.join(",", produces.value()) : MediaType.APPLICATION_JSON;
+
+        Timeout timeout = getMethodOrClassAnnotation(method, Timeout.class);
+        this.timeoutMillis = (timeout != null) ? Duration.of(timeout.value(), timeout.unit()).toMillis() : -1;
+
+        this.clientHeaderParams = (subResourceUrl == null) ?
+                ClientHeaderParamUtil.compileClientHeaderParams(method) : ClientHeaderParamTemplate.empty();
+        this.registerClientHeaders = getMethodOrClassAnnotation(method, RegisterClientHeaders.class);
+        this.clientHeadersFactory = (registerClientHeaders != null && subResourceUrl == null) ?
+                clientHeadersFactories.computeIfAbsent(registerClientHeaders.value(),
+                        c -> resolveClientHeadersFactory(registerClientHeaders.value())) : null;
+        if (clientHeadersFactory != null) {
+            IncomingHeadersUtil.markClientHeadersFactoryUsed();
+        }
+        CachedHeaderValue cachedHeaderValue = (registerClientHeaders != null) ?
+                registerClientHeaders.value().getAnnotation(CachedHeaderValue.class) : null;
+        this.cachedFactoryHeaders = (cachedHeaderValue != null) ?
+                CachedHeaderValueUtil.getHolder(registerClientHeaders.value(), cachedHeaderValue) : null;
+
+        this.returnType = method.getGenericReturnType();
+        if (returnType instanceof ParameterizedType &&
+                ((ParameterizedType) returnType).getRawType().equals(CompletionStage.class)) {
+            Type[] typeArguments = ((ParameterizedType) returnType).getActualTypeArguments();
+            if (typeArguments.length != 1) {
+                throw new IllegalArgumentException("Could not resolve type argument: " +
+                        Arrays.toString(typeArguments));
+            }
+            this.asyncResponseType = typeArguments[0];
+        } else {
+            this.asyncResponseType = null;
+        }
+
+        Type responseType = (asyncResponseType != null) ? asyncResponseType : returnType;
+        this.rawResponse = Response.class.equals(responseType);
+        this.responseEntityType = (rawResponse || void.class.equals(responseType)) ? null :
+                new GenericType<>(responseType);
+
+        this.exceptionTypes = Collections.unmodifiableList(Arrays.asList(method.getExceptionTypes()));
+    }
+
+    /**
+     * Creates invocation plans for all methods of the rest client interface.
+     *
+     * @param apiClass rest client interface
+     * @param baseURI  base URI of the rest client
+     * @return invocation plans mapped by method
+     */
+    public static Map<Method, MethodInvocationPlan> compile(Class<?> apiClass, String baseURI) {
+        Map<Method, MethodInvocationPlan> plans = new HashMap<>();
+        Map<Class<?>, ClientHeadersFactory> clientHeadersFactories = new HashMap<>();
+
+        for (Method method : apiClass.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            plans.put(method, new MethodInvocationPlan(method, baseURI, clientHeadersFactories));
+        }
+
+        return plans;
+    }
+
+    /**
+     * Binds the arguments to a {@link ParamInfo} taken from a per-thread pool. A new instance is used if the pooled
+     * one is already used by an invocation higher up the call stack (e.g. a client invoked from a header generator).
+     * The returned instance must be released with {@link ParamInfo#release()} once the request is built.
+     */
+    public ParamInfo bindParameters(Object[] args) {
+        ParamInfo paramInfo = PARAM_INFO_POOL.get();
+        if (!paramInfo.acquire()) {
+            paramInfo = new ParamInfo();
+            paramInfo.acquire();
+        }
+        paramInfo.setSlots(pathSlotNames, querySlotNames, cookieSlotNames);
+
+        try {
+            for (ParamBinder paramBinder : paramBinders) {
+                paramBinder.bind(paramInfo, args);
+            }
+        } catch (RuntimeException | Error e) {
+            paramInfo.release();
+            throw e;
+        }
+
+        return paramInfo;
+    }
+
+    /**
+     * Expands the URI template of the method with the bound parameters.
+     *
+     * @param paramInfo          parameters bound with {@link #bindParameters(Object[])}
+     * @param inheritedValues    path parameters inherited from the sub-resource locators, used for template variables
+     *                           without a value in the parameter info
+     * @param converterProviders registered param converter providers
+     * @return request URI
+     */
+    public URI expandUri(ParamInfo paramInfo, Map<String, Object> inheritedValues,
+                         ParamConverterProvider[] converterProviders) {
+        Object[] pathValues = paramInfo.getTemplateValues(templateSlots.length);
+        for (int i = 0; i < templateSlots.length; i++) {
+            pathValues[i] = paramInfo.resolvePathValue(templateSlots[i], uriTemplate.getParameterName(i),
+                    inheritedValues);
+        }
+
+        return uriTemplate.expand(pathValues, paramInfo, converterProviders);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public CompiledUriTemplate getUriTemplate() {
+        return uriTemplate;
+    }
+
+    public boolean isSubResource() {
+        return subResourceUrl != null;
+    }
+
+    public String getSubResourceUrl() {
+        return subResourceUrl;
+    }
+
+    /**
+     * Returns invocation plans of the sub-resource interface, compiled on first use. Path parameters of the locator
+     * method remain template variables in the compiled plans and are supplied when the sub-resource is invoked.
+     */
+    public Map<Method, MethodInvocationPlan> getSubResourcePlans() {
+        Map<Method, MethodInvocationPlan> plans = subResourcePlans;
+        if (plans == null) {
+            synchronized (this) {
+                plans = subResourcePlans;
+                if (plans == null) {
+                    Class<?> subResourceType = method.getReturnType();
+                    if (!RestClientIndexUtil.isIndexed(subResourceType)) {
+                        InterfaceValidatorUtil.validateApiInterface(subResourceType);
+                    }
+                    plans = compile(subResourceType, subResourceUrl);
+                    subResourcePlans = plans;
+                }
+            }
+        }
+        return plans;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isContentTypeDeclared() {
+        return contentTypeDeclared;
+    }
+
+    public String getAccept() {
+        return accept;
+    }
+
+    public boolean hasTimeout() {
+        return timeoutMillis >= 0;
+    }
+
+    /**
+     * Returns the timeout in the form expected by the {@link org.glassfish.jersey.client.ClientProperties#READ_TIMEOUT}
+     * request property.
+     *
+     * @return timeout in milliseconds
+     */
+    public int getRequestTimeout() {
+        return (int) Math.min(timeoutMillis, Integer.MAX_VALUE);
+    }
+
+    public ClientHeaderParamTemplate getClientHeaderParams() {
+        return clientHeaderParams;
+    }
+
+    public RegisterClientHeaders getRegisterClientHeaders() {
+        return registerClientHeaders;
+    }
+
+    /**
+     * Returns the {@link ClientHeadersFactory} declared with {@link RegisterClientHeaders}, resolved when the rest
+     * client was built.
+     */
+    public ClientHeadersFactory getClientHeadersFactory() {
+        return clientHeadersFactory;
+    }
+
+    /**
+     * Returns the holder of cached headers produced by the {@link RegisterClientHeaders} factory or null, if the
+     * factory is not annotated with {@link CachedHeaderValue}.
+     */
+    public CachedHeaderValueHolder<MultivaluedMap<String, String>> getCachedFactoryHeaders() {
+        return cachedFactoryHeaders;
+    }
+
+    public Type getReturnType() {
+        return returnType;
+    }
+
+    public boolean isAsync() {
+        return asyncResponseType != null;
+    }
+
+    public Type getAsyncResponseType() {
+        return asyncResponseType;
+    }
+
+    /**
+     * Returns true, if the response should be returned to the caller without reading the entity.
+     */
+    public boolean isRawResponse() {
+        return rawResponse;
+    }
+
+    /**
+     * Returns the type of the entity to read from the response or null, if the method does not return an entity.
+     */
+    public GenericType<?> getResponseEntityType() {
+        return responseEntityType;
+    }
+
+    public List<Class<?>> getExceptionTypes() {
+        return exceptionTypes;
+    }
+
+    private static ParamBinder[] determineParamBinders(Method method, Map<String, Integer> pathSlots,
+                                                      Map<String, Integer> querySlots,
+                                                      Map<String, Integer> cookieSlots) {
+        List<ParamBinder> binders = new ArrayList<>();
+        List<ParamBinder> beanParamBinders = new ArrayList<>();
+
+        Parameter[] parameters = method.getParameters();
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            boolean jaxRSAnnotationFound = false;
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (PathParam.class.equals(annotation.annotationType())) {
+                    String name = ((PathParam) annotation).value();
+                    binders.add(new ParamBinder(i, ParamBinder.Kind.PATH, name, slot(pathSlots, name)));
+                    jaxRSAnnotationFound = true;
+                }
+                if (QueryParam.class.equals(annotation.annotationType())) {
+                    String name = ((QueryParam) annotation).value();
+                    binders.add(new ParamBinder(i, ParamBinder.Kind.QUERY, name, slot(querySlots, name)));
+                    jaxRSAnnotationFound = true;
+                }
+                if (HeaderParam.class.equals(annotation.annotationType())) {
+                    binders.add(new ParamBinder(i, ParamBinder.Kind.HEADER, ((HeaderParam) annotation).value()));
+                    jaxRSAnnotationFound = true;
+                }
+                if (CookieParam.class.equals(annotation.annotationType())) {
+                    String name = ((CookieParam) annotation).value();
+                    binders.add(new ParamBinder(i, ParamBinder.Kind.COOKIE, name, slot(cookieSlots, name)));
+                    jaxRSAnnotationFound = true;
+                }
+                if (BeanParam.class.equals(annotation.annotationType())) {
+                    // bean parameters are bound last, so they are applied on top of the regular parameters
+                    beanParamBinders.add(new ParamBinder(i, ParamBinder.Kind.BEAN, null,
+                            BeanParamBinder.forClass(parameters[i].getType())));
+                    jaxRSAnnotationFound = true;
+                }
+                if (FormDataParam.class.equals(annotation.annotationType())) {
+                    binders.add(new ParamBinder(i, ParamBinder.Kind.FORM_DATA_MULTIPART,
+                            ((FormDataParam) annotation).value()));
+                    jaxRSAnnotationFound = true;
+                }
+                if (FormParam.class.equals(annotation.annotationType())) {
+                    binders.add(new ParamBinder(i, ParamBinder.Kind.FORM, ((FormParam) annotation).value()));
+                    jaxRSAnnotationFound = true;
+                }
+            }
+
+            if (!jaxRSAnnotationFound) {
+                binders.add(new ParamBinder(i, ParamBinder.Kind.PAYLOAD, null));
+            }
+        }
+
+        binders.addAll(beanParamBinders);
+
+        return binders.toArray(new ParamBinder[0]);
+    }
+
+    /**
+     * Returns the slot of the parameter, parameters with the same name share a slot.
+     */
+    private static int slot(Map<String, Integer> slots, String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = slots.size();
+            slots.put(name, slot);
+        }
+        return slot;
+    }
+
+    private static String determineMethod(Method method) {
+        if (method.getAnnotation(GET.class) != null) {
+            return HttpMethod.GET;
+        }
+        if (method.getAnnotation(PUT.class) != null) {
+            return HttpMethod.PUT;
+        }
+        if (method.getAnnotation(POST.class) != null) {
+            return HttpMethod.POST;
+        }
+        if (method.getAnnotation(DELETE.class) != null) {
+            return HttpMethod.DELETE;
+        }
+        if (method.getAnnotation(OPTIONS.class) != null) {
+            return HttpMethod.OPTIONS;
+        }
+        if (method.getAnnotation(HEAD.class) != null) {
+            return HttpMethod.HEAD;
+        }
+        // custom http method
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation.annotationType().isAnnotationPresent(HttpMethod.class)) {
+                return annotation.annotationType().getSimpleName();
+            }
+        }
+
+        return null;
+    }
+
+    private static void addPathValue(StringBuilder serverUrl, Path pathAnnotation) {
+        if (pathAnnotation != null) {
+            String value = pathAnnotation.value();
+
+            if (value.isEmpty() || value.equals("/")) {
+                return;
+            }
+
+            boolean endsWithSlash = serverUrl.length() > 0 && serverUrl.charAt(serverUrl.length() - 1) == '/';
+            if (endsWithSlash) {
+                if (value.startsWith("/")) {
+                    serverUrl.append(value, 1, value.length());
+                } else {
+                    serverUrl.append(value);
+                }
+            } else {
+                if (value.startsWith("/")) {
+                    serverUrl.append(value);
+                } else {
+                    serverUrl.append("/").append(value);
+                }
+            }
+        }
+    }
+
+    private static ClientHeadersFactory resolveClientHeadersFactory(
+            Class<? extends ClientHeadersFactory> factoryClass) {
+        try {
+            Instance<? extends ClientHeadersFactory> factoryBean = CDI.current().select(factoryClass);
+            if (factoryBean.isResolvable()) {
+                return factoryBean.get();
+            }
+        } catch (IllegalStateException ignored) {
+            // CDI container not available
+        }
+
+        try {
+            return factoryClass.getDeclaredConstructor().newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
+                NoSuchMethodException e) {
+            throw new IllegalStateException("Could not instantiate ClientHeadersFactory " + factoryClass, e);
+        }
+    }
+
+    private static <T extends Annotation> T getMethodOrClassAnnotation(Method m, Class<T> tClass) {
+        T annotation = m.getAnnotation(tClass);
+
+        if (annotation == null) {
+            annotation = m.getDeclaringClass().getAnnotation(tClass);
+        }
+
+        return annotation;
+    }
+
+    private static boolean isSubResource(Class<?> clazz) {
+        if (clazz.isInterface()) {
+            return !clazz.isAssignableFrom(JsonObject.class) &&
+                    !clazz.isAssignableFrom(JsonArray.class) &&
+                    !clazz.isAssignableFrom(CompletionStage.class);
+        }
+        return false;
+    }
+}
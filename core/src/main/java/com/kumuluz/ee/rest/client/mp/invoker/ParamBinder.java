@@ -0,0 +1,131 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+/**
+ * Binds a single argument of a rest client method to the {@link ParamInfo} of the request being built.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class ParamBinder {
+
+    public enum Kind {
+        PATH,
+        QUERY,
+        HEADER,
+        COOKIE,
+        BEAN,
+        FORM_DATA_MULTIPART,
+        FORM,
+        PAYLOAD
+    }
+
+    private final int index;
+    private final Kind kind;
+    private final String name;
+    private final int slot;
+    private final BeanParamBinder beanParamBinder;
+
+    public ParamBinder(int index, Kind kind, String name) {
+        this(index, kind, name, -1, null);
+    }
+
+    /**
+     * @param slot slot of the path, query or cookie parameter in {@link ParamInfo}, -1 to bind the value by name
+     */
+    public ParamBinder(int index, Kind kind, String name, int slot) {
+        this(index, kind, name, slot, null);
+    }
+
+    public ParamBinder(int index, Kind kind, String name, BeanParamBinder beanParamBinder) {
+        this(index, kind, name, -1, beanParamBinder);
+    }
+
+    private ParamBinder(int index, Kind kind, String name, int slot, BeanParamBinder beanParamBinder) {
+        this.index = index;
+        this.kind = kind;
+        this.name = name;
+        this.slot = slot;
+        this.beanParamBinder = beanParamBinder;
+    }
+
+    public void bind(ParamInfo paramInfo, Object[] args) {
+        Object value = args[index];
+
+        switch (kind) {
+            case PATH:
+                if (slot >= 0) {
+                    paramInfo.setPathValue(slot, value);
+                } else {
+                    paramInfo.addPathParameter(name, value);
+                }
+                break;
+            case QUERY:
+                if (slot >= 0) {
+                    paramInfo.setQueryValue(slot, value);
+                } else {
+                    paramInfo.addQueryParameter(name, value);
+                }
+                break;
+            case HEADER:
+                paramInfo.addHeader(name, (String) value);
+                break;
+            case COOKIE:
+                if (slot >= 0) {
+                    paramInfo.setCookieValue(slot, value);
+                } else {
+                    paramInfo.addCookieParameter(name, value);
+                }
+                break;
+            case BEAN:
+                beanParamBinder.bind(paramInfo, value);
+                break;
+            case FORM_DATA_MULTIPART:
+                paramInfo.addFormDataMultipartParameter(name, value);
+                break;
+            case FORM:
+                paramInfo.addFormDataParameter(name, value);
+                break;
+            case PAYLOAD:
+                paramInfo.setPayload(value);
+                break;
+            default:
+                throw new IllegalStateException("Unknown parameter kind " + kind);
+        }
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Model for query parameter information.
+ * <p>
+ * Path, query and cookie parameters of the method itself are stored in slots addressed by the index the
+ * {@link MethodInvocationPlan} assigned to them. Parameters contributed by {@link javax.ws.rs.BeanParam} members are
+ * only known per bean class and are stored by name, they take precedence over the slots.
+ *
+ * @author Miha Jamsek
+ * @since 1.0.1
+ */
+
+public class ParamInfo {
+
+    private static final String[] NO_NAMES = new String[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private String[] pathNames = NO_NAMES;
+    private String[] queryNames = NO_NAMES;
+    private String[] cookieNames = NO_NAMES;
+    // slot arrays are kept when a pooled instance is released and may be longer than the names
+    private Object[] pathValues = NO_VALUES;
+    private Object[] queryValues = NO_VALUES;
+    private Object[] cookieValues = NO_VALUES;
+    private Object[] templateValues = NO_VALUES;
+
+    private Map<String, Object> pathParameterValues;
+    private Map<String, Object> queryParameterValues;
+    private Map<String, Object> cookieParameterValues;
+    private Map<String, Object> formDataMultipartParameterValues;
+    private Map<String, Object> formDataParameterValues;
+    private MultivaluedMap<String, String> headerValues;
+    private Object payload = null;
+
+    private boolean inUse = false;
+
+    /**
+     * Prepares the slots for the parameters of a method.
+     *
+     * @param pathNames   names of the path parameter slots
+     * @param queryNames  names of the query parameter slots
+     * @param cookieNames names of the cookie parameter slots
+     */
+    void setSlots(String[] pathNames, String[] queryNames, String[] cookieNames) {
+        this.pathNames = pathNames;
+        this.queryNames = queryNames;
+        this.cookieNames = cookieNames;
+        pathValues = ensureLength(pathValues, pathNames.length);
+        queryValues = ensureLength(queryValues, queryNames.length);
+        cookieValues = ensureLength(cookieValues, cookieNames.length);
+    }
+
+    void setPathValue(int slot, Object val) {
+        pathValues[slot] = val;
+    }
+
+    void setQueryValue(int slot, Object val) {
+        queryValues[slot] = val;
+    }
+
+    void setCookieValue(int slot, Object val) {
+        cookieValues[slot] = val;
+    }
+
+    /**
+     * Returns the value of a path parameter. Values bound by name take precedence over the slot, parameters without
+     * a value in this instance are looked up in the inherited values.
+     *
+     * @param slot      slot of the parameter or -1, if the method has no parameter with this name
+     * @param name      name of the parameter
+     * @param inherited values inherited from the sub-resource locators
+     * @return parameter value
+     */
+    Object resolvePathValue(int slot, String name, Map<String, Object> inherited) {
+        if (pathParameterValues != null && pathParameterValues.containsKey(name)) {
+            return pathParameterValues.get(name);
+        }
+        if (slot >= 0) {
+            return pathValues[slot];
+        }
+        return inherited.get(name);
+    }
+
+    /**
+     * Returns a reusable array for the values of the URI template variables.
+     */
+    Object[] getTemplateValues(int length) {
+        templateValues = ensureLength(templateValues, length);
+        return templateValues;
+    }
+
+    public int getQuerySlotCount() {
+        return queryNames.length;
+    }
+
+    public String getQuerySlotName(int slot) {
+        return queryNames[slot];
+    }
+
+    public Object getQuerySlotValue(int slot) {
+        return queryValues[slot];
+    }
+
+    /**
+     * Returns true, if the query parameter in the slot is replaced by a value bound by name.
+     */
+    public boolean isQuerySlotOverridden(int slot) {
+        return queryParameterValues != null && queryParameterValues.containsKey(queryNames[slot]);
+    }
+
+    public int getCookieSlotCount() {
+        return cookieNames.length;
+    }
+
+    public String getCookieSlotName(int slot) {
+        return cookieNames[slot];
+    }
+
+    public Object getCookieSlotValue(int slot) {
+        return cookieValues[slot];
+    }
+
+    /**
+     * Returns true, if the cookie parameter in the slot is replaced by a value bound by name.
+     */
+    public boolean isCookieSlotOverridden(int slot) {
+        return cookieParameterValues != null && cookieParameterValues.containsKey(cookieNames[slot]);
+    }
+
+    public void addPathParameter(String name, Object val) {
+        if (pathParameterValues == null) {
+            pathParameterValues = new HashMap<>();
+        }
+        pathParameterValues.put(name, val);
+    }
+
+    public void addQueryParameter(String name, Object val) {
+        if (queryParameterValues == null) {
+            queryParameterValues = new HashMap<>();
+        }
+        queryParameterValues.put(name, val);
+    }
+
+    public void addCookieParameter(String name, Object val) {
+        if (cookieParameterValues == null) {
+            cookieParameterValues = new HashMap<>();
+        }
+        cookieParameterValues.put(name, val);
+    }
+
+    public void addFormDataParameter(String name, Object val) {
+        if (formDataParameterValues == null) {
+            formDataParameterValues = new HashMap<>();
+        }
+        formDataParameterValues.put(name, val);
+    }
+    
+    public void addFormDataMultipartParameter(String name, Object val) {
+        if (formDataMultipartParameterValues == null) {
+            formDataMultipartParameterValues = new HashMap<>();
+        }
+        formDataMultipartParameterValues.put(name, val);
+    }
+
+    public void addHeader(String name, String val) {
+        getHeaderValues().add(name, val);
+    }
+
+    public void setPayload(Object payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Returns the values of all path parameters, including the slots.
+     */
+    public Map<String, Object> getPathParameterValues() {
+        return merge(pathNames, pathValues, pathParameterValues);
+    }
+
+    /**
+     * Returns the query parameters bound by name, the slots are not included.
+     */
+    public Map<String, Object> getQueryParameterValues() {
+        return (queryParameterValues == null) ? Collections.emptyMap() : queryParameterValues;
+    }
+
+    public MultivaluedMap<String, String> getHeaderValues() {
+        if (headerValues == null) {
+            headerValues = new MultivaluedHashMap<>();
+        }
+        return headerValues;
+    }
+
+    /**
+     * Returns the cookie parameters bound by name, the slots are not included.
+     */
+    public Map<String, Object> getCookieParameterValues() {
+        return (cookieParameterValues == null) ? Collections.emptyMap() : cookieParameterValues;
+    }
+
+    public Map<String, Object> getFormDataParameterValues() {
+        return (formDataParameterValues == null) ? Collections.emptyMap() : formDataParameterValues;
+    }
+    
+    public Map<String, Object> getFormDataMultipartParameterValues() {
+        return (formDataMultipartParameterValues == null) ? Collections.emptyMap() :
+                formDataMultipartParameterValues;
+    }
+    
+    public boolean hasFormDataMultipartParams() {
+        return formDataMultipartParameterValues != null && !formDataMultipartParameterValues.isEmpty();
+    }
+    
+    public boolean hasFormDataParams() {
+        return formDataParameterValues != null && !formDataParameterValues.isEmpty();
+    }
+
+    public Object getPayload() {
+        if (payload == null) {
+            return null;
+        }
+        if (payload instanceof JsonObject || payload instanceof JsonArray) {
+            return payload.toString();
+        }
+        return payload;
+    }
+
+    /**
+     * Marks a pooled instance as used by the current invocation.
+     *
+     * @return false if the instance is already used by an invocation higher up the call stack
+     */
+    boolean acquire() {
+        if (inUse) {
+            return false;
+        }
+        inUse = true;
+        return true;
+    }
+
+    /**
+     * Clears the values so that the instance can be reused. Maps are kept to avoid allocating them again.
+     */
+    void release() {
+        // slots are cleared so that the pooled instance does not retain the arguments
+        Arrays.fill(pathValues, 0, pathNames.length, null);
+        Arrays.fill(queryValues, 0, queryNames.length, null);
+        Arrays.fill(cookieValues, 0, cookieNames.length, null);
+        Arrays.fill(templateValues, null);
+        pathNames = NO_NAMES;
+        queryNames = NO_NAMES;
+        cookieNames = NO_NAMES;
+        clear(pathParameterValues);
+        clear(queryParameterValues);
+        clear(cookieParameterValues);
+        clear(formDataMultipartParameterValues);
+        clear(formDataParameterValues);
+        clear(headerValues);
+        payload = null;
+        inUse = false;
+    }
+
+    private static Object[] ensureLength(Object[] values, int length) {
+        return (values.length >= length) ? values : new Object[length];
+    }
+
+    private static Map<String, Object> merge(String[] names, Object[] values, Map<String, Object> byName) {
+        if (names.length == 0) {
+            return (byName == null) ? Collections.emptyMap() : byName;
+        }
+
+        Map<String, Object> merged = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            merged.put(names[i], values[i]);
+        }
+        if (byName != null) {
+            merged.putAll(byName);
+        }
+        return merged;
+    }
+
+    private static void clear(Map<?, ?> map) {
+        if (map != null) {
+            map.clear();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import org.eclipse.microprofile.rest.client.ext.AsyncInvocationInterceptorFactory;
+import org.eclipse.microprofile.rest.client.ext.ResponseExceptionMapper;
+
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.ext.ParamConverterProvider;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Snapshot of the providers used directly by the {@link RestClientInvoker}. Providers are resolved, instantiated and
+ * sorted by priority once, when the rest client is built.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class RegisteredProviders {
+
+    private final ResponseExceptionMapper[] responseExceptionMappers;
+    private final ResponseExceptionMapperDispatch responseExceptionMapperDispatch;
+    private final ParamConverterProvider[] paramConverterProviders;
+    private final AsyncInvocationInterceptorFactory[] asyncInvocationInterceptorFactories;
+
+    public RegisteredProviders(Configuration configuration) {
+        this.responseExceptionMappers = resolveProviders(configuration, ResponseExceptionMapper.class);
+        this.responseExceptionMapperDispatch = new ResponseExceptionMapperDispatch(responseExceptionMappers);
+        this.paramConverterProviders = resolveProviders(configuration, ParamConverterProvider.class);
+        this.asyncInvocationInterceptorFactories = resolveProviders(configuration,
+                AsyncInvocationInterceptorFactory.class);
+    }
+
+    public ResponseExceptionMapper[] getResponseExceptionMappers() {
+        return responseExceptionMappers;
+    }
+
+    public ResponseExceptionMapperDispatch getResponseExceptionMapperDispatch() {
+        return responseExceptionMapperDispatch;
+    }
+
+    public ParamConverterProvider[] getParamConverterProviders() {
+        return paramConverterProviders;
+    }
+
+    public AsyncInvocationInterceptorFactory[] getAsyncInvocationInterceptorFactories() {
+        return asyncInvocationInterceptorFactories;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T[] resolveProviders(Configuration configuration, Class<T> providerType) {
+        List<LocalProviderInfo<T>> ls = new ArrayList<>();
+
+        for (Object provider : configuration.getInstances()) {
+            Integer priority = configuration.getContracts(provider.getClass()).get(providerType);
+            if (priority != null && providerType.isInstance(provider)) {
+                ls.add(new LocalProviderInfo<>(providerType.cast(provider), priority));
+            }
+        }
+
+        for (Class providerClass : configuration.getClasses()) {
+            Integer priority = configuration.getContracts(providerClass).get(providerType);
+            if (priority != null && providerType.isAssignableFrom(providerClass)) {
+                try {
+                    ls.add(new LocalProviderInfo<>(
+                            providerType.cast(providerClass.getDeclaredConstructor().newInstance()), priority));
+                } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
+                        NoSuchMethodException e) {
+                    throw new RuntimeException("Failed to create new instance of "
+                            + providerType + ": " + providerClass, e);
+                }
+            }
+        }
+
+        ls.sort(Comparator.comparingInt(LocalProviderInfo::getPriority));
+
+        T[] providers = (T[]) Array.newInstance(providerType, ls.size());
+        for (int i = 0; i < providers.length; i++) {
+            providers[i] = ls.get(i).getLocalProvider();
+        }
+
+        return providers;
+    }
+}
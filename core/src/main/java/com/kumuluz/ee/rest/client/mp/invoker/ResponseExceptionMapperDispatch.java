@@ -0,0 +1,136 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import com.kumuluz.ee.rest.client.mp.annotations.StatusOnlyMapping;
+import com.kumuluz.ee.rest.client.mp.spec.DefaultExceptionMapper;
+import org.eclipse.microprofile.rest.client.ext.ResponseExceptionMapper;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resolves the {@link ResponseExceptionMapper}s which handle a response status. Mappers known to decide based on the
+ * status only ({@link DefaultExceptionMapper} and mappers annotated with {@link StatusOnlyMapping}) are asked once per
+ * status and the result is cached, all other mappers are asked for every response with the actual headers. Statuses
+ * not handled by any mapper (usually all successful statuses when only status-only mappers are registered) resolve to
+ * an empty array, so that the mapping can be skipped entirely.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class ResponseExceptionMapperDispatch {
+
+    private static final Logger LOG = Logger.getLogger(ResponseExceptionMapperDispatch.class.getSimpleName());
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private static final Candidate[] NO_CANDIDATES = new Candidate[0];
+
+    private final Candidate[] mappers;
+    private final AtomicReferenceArray<Candidate[]> candidatesByStatus;
+
+    public ResponseExceptionMapperDispatch(ResponseExceptionMapper[] mappers) {
+        this.mappers = new Candidate[mappers.length];
+        for (int i = 0; i < mappers.length; i++) {
+            this.mappers[i] = new Candidate(mappers[i], !isStatusOnly(mappers[i]));
+        }
+        this.candidatesByStatus = new AtomicReferenceArray<>(MAX_STATUS - MIN_STATUS + 1);
+    }
+
+    /**
+     * Returns mappers, ordered by priority, which handle the status or need the response headers to decide.
+     *
+     * @param status response status
+     * @return candidate mappers, empty if the response does not need to be mapped
+     */
+    public Candidate[] getCandidates(int status) {
+        if (status < MIN_STATUS || status > MAX_STATUS) {
+            return resolveCandidates(status);
+        }
+
+        Candidate[] candidates = candidatesByStatus.get(status - MIN_STATUS);
+        if (candidates == null) {
+            // concurrent resolution yields the same result, no need to lock
+            candidates = resolveCandidates(status);
+            candidatesByStatus.set(status - MIN_STATUS, candidates);
+        }
+        return candidates;
+    }
+
+    private Candidate[] resolveCandidates(int status) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (Candidate mapper : mappers) {
+            if (mapper.headerDependent) {
+                candidates.add(mapper);
+                continue;
+            }
+
+            try {
+                if (mapper.mapper.handles(status, new MultivaluedHashMap<>())) {
+                    candidates.add(mapper);
+                }
+            } catch (RuntimeException e) {
+                // the mapper needs something the empty headers do not provide, ask it for every response
+                LOG.log(Level.FINE, "Could not resolve whether " + mapper.mapper.getClass().getName() +
+                        " handles status " + status + ", treating it as header dependent.", e);
+                candidates.add(new Candidate(mapper.mapper, true));
+            }
+        }
+        return candidates.isEmpty() ? NO_CANDIDATES : candidates.toArray(NO_CANDIDATES);
+    }
+
+    private static boolean isStatusOnly(ResponseExceptionMapper<?> mapper) {
+        return mapper.getClass() == DefaultExceptionMapper.class ||
+                mapper.getClass().isAnnotationPresent(StatusOnlyMapping.class);
+    }
+
+    /**
+     * Mapper which handles a status, or may handle it depending on the response headers.
+     */
+    public static final class Candidate {
+
+        private final ResponseExceptionMapper<?> mapper;
+        private final boolean headerDependent;
+
+        private Candidate(ResponseExceptionMapper<?> mapper, boolean headerDependent) {
+            this.mapper = mapper;
+            this.headerDependent = headerDependent;
+        }
+
+        public ResponseExceptionMapper<?> getMapper() {
+            return mapper;
+        }
+
+        /**
+         * Returns true if the mapper handles the response. Status-only mappers are not asked again.
+         */
+        public boolean handles(Response response) {
+            return !headerDependent || mapper.handles(response.getStatus(), response.getHeaders());
+        }
+    }
+}
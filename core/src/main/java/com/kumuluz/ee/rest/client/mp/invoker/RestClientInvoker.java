@@ -0,0 +1,522 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.rest.client.mp.engine.ClientDispatcher;
+import com.kumuluz.ee.rest.client.mp.engine.ClientEngine;
+import com.kumuluz.ee.rest.client.mp.engine.GeneratedClientFactory;
+import com.kumuluz.ee.rest.client.mp.executor.InternalExecution;
+import com.kumuluz.ee.rest.client.mp.providers.IncomingHeadersInterceptor;
+import com.kumuluz.ee.rest.client.mp.util.ClientLifecycleUtil;
+import com.kumuluz.ee.rest.client.mp.util.FormParamsUtil;
+import org.eclipse.microprofile.rest.client.ext.AsyncInvocationInterceptor;
+import org.eclipse.microprofile.rest.client.ext.AsyncInvocationInterceptorFactory;
+import org.eclipse.microprofile.rest.client.ext.ClientHeadersFactory;
+import org.eclipse.microprofile.rest.client.ext.DefaultClientHeadersFactoryImpl;
+import org.glassfish.jersey.client.ClientProperties;
+
+import javax.enterprise.inject.spi.CDI;
+import javax.ws.rs.client.*;
+import javax.ws.rs.core.*;
+import java.io.Closeable;
+import java.lang.reflect.*;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Invokes rest client for methods of interfaces annotated with
+ * {@link org.eclipse.microprofile.rest.client.inject.RegisterRestClient}.
+ *
+ * @author Miha Jamsek
+ * @since 1.0.1
+ */
+public class RestClientInvoker implements InvocationHandler {
+
+    private static final int DEFAULT_SUB_RESOURCE_CACHE_SIZE = 64;
+
+    private static final CachedHeaderValueHolder.Loader<ClientHeadersFactory, MultivaluedMap<String, String>>
+            CACHED_FACTORY_LOADER = f -> f.update(new MultivaluedHashMap<>(), new MultivaluedHashMap<>());
+
+    private Client client;
+    private Configuration configuration;
+    private ExecutorService executorService;
+    private Map<Method, MethodInvocationPlan> invocationPlans;
+    private RegisteredProviders providers;
+    private AsyncInvocationMode asyncMode;
+    private IncomingHeadersInterceptor incomingHeadersInterceptor;
+    private AtomicBoolean closed;
+
+    // set for sub-resource clients, which use the client of the parent
+    private RestClientInvoker parent;
+    private Map<String, Object> inheritedPathValues;
+    private MethodInvocationPlan locator;
+    private String resolvedPrefix;
+    private SubResourceCache subResourceCache;
+
+    public RestClientInvoker(Client client, Configuration configuration, ExecutorService executorService,
+                             Map<Method, MethodInvocationPlan> invocationPlans, AsyncInvocationMode asyncMode) {
+        this.client = client;
+        ClientLifecycleUtil.track(this, client);
+
+        // Jersey uses lazy initialization for Feature configuration, MP spec requires Features to be configured
+        // at registration. This call forces Jersey to initialize Features
+        try {
+            this.client.target("/").request().buildGet();
+        } catch (Exception ignored) {
+        }
+
+        this.configuration = configuration;
+        this.executorService = executorService;
+        this.invocationPlans = invocationPlans;
+        this.providers = new RegisteredProviders(configuration);
+        this.asyncMode = asyncMode;
+        this.incomingHeadersInterceptor = resolveIncomingHeadersInterceptor(invocationPlans.values());
+        this.closed = new AtomicBoolean(false);
+        this.parent = null;
+        this.inheritedPathValues = Collections.emptyMap();
+        this.locator = null;
+        this.resolvedPrefix = null;
+        this.subResourceCache = new SubResourceCache(ConfigurationUtil.getInstance()
+                .getInteger("kumuluzee.rest-client.sub-resource-cache-size")
+                .orElse(DEFAULT_SUB_RESOURCE_CACHE_SIZE));
+    }
+
+    private RestClientInvoker(RestClientInvoker parent, MethodInvocationPlan locator, String resolvedPrefix,
+                              Map<String, Object> inheritedPathValues) {
+        this.client = parent.client;
+        this.configuration = parent.configuration;
+        this.executorService = parent.executorService;
+        this.invocationPlans = locator.getSubResourcePlans();
+        this.providers = parent.providers;
+        this.asyncMode = parent.asyncMode;
+        this.incomingHeadersInterceptor = resolveIncomingHeadersInterceptor(invocationPlans.values());
+        this.closed = new AtomicBoolean(false);
+        this.parent = parent;
+        this.inheritedPathValues = inheritedPathValues;
+        this.locator = locator;
+        this.resolvedPrefix = resolvedPrefix;
+        this.subResourceCache = parent.subResourceCache;
+    }
+
+    /**
+     * Creates the rest client instance backed by this invoker, either a generated implementation or a proxy.
+     *
+     * @param apiClass rest client interface
+     * @return rest client instance
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T createClient(Class<T> apiClass) {
+        if (ClientEngine.forRegistration(apiClass) == ClientEngine.GENERATED) {
+            Optional<T> generatedClient = GeneratedClientFactory.newInstance(apiClass,
+                    createDispatcher(GeneratedClientFactory.getClientMethods(apiClass)));
+            if (generatedClient.isPresent()) {
+                return generatedClient.get();
+            }
+        }
+
+        return (T) Proxy.newProxyInstance(RestClientInvoker.class.getClassLoader(),
+                new Class[]{apiClass, Closeable.class, AutoCloseable.class}, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        if (method.getName().equals("close") && args == null) {
+            close();
+            return null;
+        }
+
+        return invoke(proxy, method, invocationPlans.get(method), args);
+    }
+
+    /**
+     * Creates a dispatcher for a generated client implementation. Plans are resolved once and addressed by the index
+     * of the method.
+     *
+     * @param methods client methods, as returned by {@link GeneratedClientFactory#getClientMethods(Class)}
+     * @return dispatcher invoking this client
+     */
+    public ClientDispatcher createDispatcher(Method[] methods) {
+        MethodInvocationPlan[] plans = new MethodInvocationPlan[methods.length];
+        boolean[] closeMethods = new boolean[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            plans[i] = invocationPlans.get(methods[i]);
+            closeMethods[i] = methods[i].getName().equals("close") && methods[i].getParameterCount() == 0;
+        }
+
+        return (client, methodIndex, args) -> {
+            if (closeMethods[methodIndex]) {
+                close();
+                return null;
+            }
+
+            return invoke(client, methods[methodIndex], plans[methodIndex], args);
+        };
+    }
+
+    private Object invoke(Object proxy, Method method, MethodInvocationPlan plan, Object[] args) throws Throwable {
+
+        if (isClosed()) {
+            throw new IllegalStateException("Rest Client is closed.");
+        }
+
+        if (plan == null) {
+            throw new RuntimeException(String.format("Unknown HTTP method at %s", method));
+        }
+
+        // if subresource exists, return RestClient for subresource type
+        if (plan.isSubResource()) {
+            return getSubResource(plan, args);
+        }
+
+        String httpMethod = plan.getHttpMethod();
+        if (httpMethod == null) {
+            throw new RuntimeException(String.format("Unknown HTTP method at %s", method));
+        }
+        ParamInfo paramInfo = plan.bindParameters(args);
+        Invocation invocation;
+        try {
+            invocation = buildInvocation(proxy, method, plan, paramInfo);
+        } finally {
+            // everything needed was copied to the request, pooled instance can be reused
+            paramInfo.release();
+        }
+
+        return invokeRequest(invocation, plan);
+    }
+
+    /**
+     * Returns the client of the sub-resource located by the plan. Clients are cached by the locator method and the URI
+     * the locator resolves to; they share the transport and the providers of this client and receive the path
+     * parameters of the locator instead of a new base URI.
+     */
+    private Object getSubResource(MethodInvocationPlan plan, Object[] args) {
+        ParamInfo paramInfo = plan.bindParameters(args);
+        try {
+            Map<String, Object> pathValues = inheritPathValues(paramInfo.getPathParameterValues());
+            String resolvedPrefix = plan.getUriTemplate().expand(pathValues, Collections.emptyMap(),
+                    providers.getParamConverterProviders()).toString();
+
+            return subResourceCache.get(plan, resolvedPrefix, () -> {
+                Map<String, Object> locatorPathValues = pathValues.isEmpty() ?
+                        Collections.emptyMap() : new HashMap<>(pathValues);
+                return new RestClientInvoker(this, plan, resolvedPrefix, locatorPathValues)
+                        .createClient(plan.getMethod().getReturnType());
+            });
+        } finally {
+            paramInfo.release();
+        }
+    }
+
+    private Map<String, Object> inheritPathValues(Map<String, Object> pathValues) {
+        if (inheritedPathValues.isEmpty()) {
+            return pathValues;
+        }
+
+        Map<String, Object> merged = new HashMap<>(inheritedPathValues);
+        // parameters of the sub-resource method take precedence
+        merged.putAll(pathValues);
+        return merged;
+    }
+
+    private Invocation buildInvocation(Object proxy, Method method, MethodInvocationPlan plan, ParamInfo paramInfo)
+            throws Throwable {
+        String httpMethod = plan.getHttpMethod();
+        URI uri = plan.expandUri(paramInfo, inheritedPathValues, providers.getParamConverterProviders());
+
+        MultivaluedMap<String, String> headers = paramInfo.getHeaderValues();
+        plan.getClientHeaderParams().apply(proxy, headers, executorService);
+
+        ClientHeadersFactory clientHeadersFactory = plan.getClientHeadersFactory();
+        if (clientHeadersFactory != null) {
+
+            CachedHeaderValueHolder<MultivaluedMap<String, String>> cachedFactoryHeaders =
+                    plan.getCachedFactoryHeaders();
+            if (cachedFactoryHeaders != null) {
+                MultivaluedMap<String, String> factoryHeaders = cachedFactoryHeaders.get(CACHED_FACTORY_LOADER,
+                        clientHeadersFactory, executorService);
+                for (Map.Entry<String, List<String>> header : factoryHeaders.entrySet()) {
+                    headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+                }
+            } else {
+                headers = clientHeadersFactory.update(
+                        getIncomingHeaders(clientHeadersFactory instanceof DefaultClientHeadersFactoryImpl), headers);
+            }
+        }
+
+        Invocation.Builder request = this.client
+                .target(uri)
+                .request()
+                .property("org.eclipse.microprofile.rest.client.invokedMethod", method);
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                if (value != null) {
+                    request.header(header.getKey(), value);
+                }
+            }
+        }
+
+        if (plan.hasTimeout()) {
+            // per-request deadline, overrides the read timeout configured on the client; the connector applies it to
+            // the whole exchange, so no additional client is needed
+            request.property(ClientProperties.READ_TIMEOUT, plan.getRequestTimeout());
+        }
+
+        String payloadType = plan.getContentType();
+        if (plan.isContentTypeDeclared()) {
+            request.header(HttpHeaders.CONTENT_TYPE, payloadType);
+        }
+        request.header(HttpHeaders.ACCEPT, plan.getAccept());
+
+        for (int i = 0; i < paramInfo.getCookieSlotCount(); i++) {
+            if (!paramInfo.isCookieSlotOverridden(i)) {
+                request = request.cookie(paramInfo.getCookieSlotName(i), (String) paramInfo.getCookieSlotValue(i));
+            }
+        }
+        for (Map.Entry<String, Object> entry : paramInfo.getCookieParameterValues().entrySet()) {
+            request = request.cookie(entry.getKey(), (String) entry.getValue());
+        }
+        
+        if (paramInfo.hasFormDataParams() && paramInfo.hasFormDataMultipartParams()) {
+            throw new IllegalStateException("Both @FormParam and @FormDataParam are present in method arguments!");
+        }
+
+        Invocation invocation;
+        if (paramInfo.getPayload() != null) {
+            invocation = request.build(httpMethod, Entity.entity(paramInfo.getPayload(), payloadType));
+        } else if (paramInfo.hasFormDataMultipartParams()) {
+            Entity<?> entity = FormParamsUtil.processMultipartFormParams(paramInfo.getFormDataMultipartParameterValues());
+            invocation = request.build(httpMethod, entity);
+        } else if (paramInfo.hasFormDataParams()) {
+            Entity<?> entity = FormParamsUtil.processUrlEncodedFormParams(paramInfo.getFormDataParameterValues());
+            invocation = request.build(httpMethod, entity);
+        } else {
+            invocation = request.build(httpMethod);
+        }
+
+        return invocation;
+    }
+
+    private void close() {
+        if (closed.compareAndSet(false, true)) {
+            if (parent == null) {
+                ClientLifecycleUtil.close(this.client);
+            } else {
+                // sub-resource clients do not own the client, closed client must not be returned by the locator again
+                subResourceCache.remove(locator, resolvedPrefix);
+            }
+        }
+    }
+
+    private boolean isClosed() {
+        return closed.get() || (parent != null && parent.isClosed());
+    }
+
+    private MultivaluedMap<String, String> getIncomingHeaders(boolean propagatedOnly) {
+        if (incomingHeadersInterceptor != null) {
+            try {
+                // default factory only uses the headers configured for propagation
+                return (propagatedOnly) ? incomingHeadersInterceptor.getPropagatedHeaders() :
+                        incomingHeadersInterceptor.getIncomingHeaders();
+            } catch (Exception ignored) {
+                // request context not active
+            }
+        }
+
+        return new MultivaluedHashMap<>();
+    }
+
+    private static IncomingHeadersInterceptor resolveIncomingHeadersInterceptor(
+            Collection<MethodInvocationPlan> invocationPlans) {
+        if (invocationPlans.stream().noneMatch(p -> p.getClientHeadersFactory() != null)) {
+            return null;
+        }
+
+        try {
+            // request scoped bean, contextual proxy can be reused
+            return CDI.current().select(IncomingHeadersInterceptor.class).get();
+        } catch (Exception ignored) {
+        }
+
+        return null;
+    }
+
+    private Object invokeRequest(Invocation invocation, MethodInvocationPlan plan) throws Throwable {
+
+        if (plan.isAsync()) {
+
+            // apply interceptors
+            AsyncInvocationInterceptorFactory[] factories = providers.getAsyncInvocationInterceptorFactories();
+            List<AsyncInvocationInterceptor> interceptors = new ArrayList<>(factories.length);
+            for (AsyncInvocationInterceptorFactory factory : factories) {
+                interceptors.add(factory.newInterceptor());
+            }
+            interceptors.forEach(AsyncInvocationInterceptor::prepareContext);
+
+            CompletableFuture<Object> cf = new CompletableFuture<>();
+
+            ExecutorService executor = this.executorService;
+
+            if (asyncMode == AsyncInvocationMode.NON_BLOCKING) {
+                // the request is sent by the connector, executor is only used once the response headers arrive
+                invocation.submit(new InvocationCallback<Response>() {
+                    @Override
+                    public void completed(Response response) {
+                        completeAsync(cf, executor, interceptors, response, plan);
+                    }
+
+                    @Override
+                    public void failed(Throwable throwable) {
+                        if (throwable instanceof ResponseProcessingException) {
+                            completeAsync(cf, executor, interceptors,
+                                    ((ResponseProcessingException) throwable).getResponse(), plan);
+                        } else {
+                            failAsync(cf, executor, interceptors, throwable);
+                        }
+                    }
+                });
+
+                return cf;
+            }
+
+            try {
+                executor.submit(() -> {
+                    interceptors.forEach(AsyncInvocationInterceptor::applyContext);
+
+                    Response response = invocation.invoke();
+
+                    try {
+                        handleExceptionMapping(response, plan.getExceptionTypes());
+                    } catch (Throwable throwable) {
+                        cf.completeExceptionally(throwable);
+                    }
+
+                    interceptors.forEach(AsyncInvocationInterceptor::removeContext);
+
+                    cf.complete(processResponse(plan, response));
+                });
+            } catch (RejectedExecutionException e) {
+                cf.completeExceptionally(e);
+            }
+
+            return cf;
+        } else {
+
+            Response response;
+
+            try {
+                response = invocation.invoke();
+            } catch (ResponseProcessingException e) {
+                response = e.getResponse();
+            }
+
+            handleExceptionMapping(response, plan.getExceptionTypes());
+
+            return processResponse(plan, response);
+        }
+    }
+
+    private void completeAsync(CompletableFuture<Object> cf, ExecutorService executor,
+                               List<AsyncInvocationInterceptor> interceptors, Response response,
+                               MethodInvocationPlan plan) {
+        try {
+            InternalExecution.execute(executor, () -> {
+                interceptors.forEach(AsyncInvocationInterceptor::applyContext);
+
+                try {
+                    handleExceptionMapping(response, plan.getExceptionTypes());
+                    cf.complete(processResponse(plan, response));
+                } catch (Throwable throwable) {
+                    cf.completeExceptionally(throwable);
+                } finally {
+                    interceptors.forEach(AsyncInvocationInterceptor::removeContext);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            response.close();
+            cf.completeExceptionally(e);
+        }
+    }
+
+    private static void failAsync(CompletableFuture<Object> cf, ExecutorService executor,
+                                  List<AsyncInvocationInterceptor> interceptors, Throwable failure) {
+        try {
+            InternalExecution.execute(executor, () -> {
+                interceptors.forEach(AsyncInvocationInterceptor::applyContext);
+
+                try {
+                    cf.completeExceptionally(failure);
+                } finally {
+                    interceptors.forEach(AsyncInvocationInterceptor::removeContext);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            failure.addSuppressed(e);
+            cf.completeExceptionally(failure);
+        }
+    }
+
+    private Object processResponse(MethodInvocationPlan plan, Response response) {
+        if (plan.isRawResponse()) {
+            return response;
+        }
+
+        GenericType<?> entityType = plan.getResponseEntityType();
+        if (entityType != null) {
+            // get user defined entity
+            return response.readEntity(entityType);
+        }
+        return null;
+    }
+
+    private void handleExceptionMapping(Response response, List<Class<?>> exceptionTypes) throws Throwable {
+        ResponseExceptionMapperDispatch.Candidate[] candidates = providers.getResponseExceptionMapperDispatch()
+                .getCandidates(response.getStatus());
+
+        for (ResponseExceptionMapperDispatch.Candidate candidate : candidates) {
+            if (candidate.handles(response)) {
+                Throwable throwable = candidate.getMapper().toThrowable(response);
+                if (throwable != null) {
+                    throwException(throwable, exceptionTypes);
+                }
+            }
+        }
+    }
+
+    private void throwException(Throwable throwable, List<Class<?>> exceptionTypes) throws Throwable {
+        if (throwable instanceof RuntimeException || throwable instanceof Error) {
+            throw throwable;
+        }
+
+        for (Class<?> exceptionType : exceptionTypes) {
+            if (exceptionType.isAssignableFrom(throwable.getClass())) {
+                throw throwable;
+            }
+        }
+    }
+
+}
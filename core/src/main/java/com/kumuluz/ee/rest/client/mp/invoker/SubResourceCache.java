@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.invoker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of sub-resource clients of a single rest client, addressed by the sub-resource locator method and the
+ * URI prefix resolved from its path parameters. Least recently used clients are evicted once the cache is full. Sub-resource
+ * clients share the transport of the parent client and hold no resources of their own, so evicted clients need no
+ * cleanup.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+class SubResourceCache {
+
+    private final Map<Key, Object> clients;
+
+    SubResourceCache(int maxSize) {
+        this.clients = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized Object get(MethodInvocationPlan locator, String resolvedPrefix, Supplier<Object> clientSupplier) {
+        return clients.computeIfAbsent(new Key(locator, resolvedPrefix), k -> clientSupplier.get());
+    }
+
+    synchronized void remove(MethodInvocationPlan locator, String resolvedPrefix) {
+        clients.remove(new Key(locator, resolvedPrefix));
+    }
+
+    synchronized int size() {
+        return clients.size();
+    }
+
+    private static final class Key {
+
+        private final MethodInvocationPlan locator;
+        private final String resolvedPrefix;
+
+        private Key(MethodInvocationPlan locator, String resolvedPrefix) {
+            this.locator = locator;
+            this.resolvedPrefix = resolvedPrefix;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return locator == key.locator && resolvedPrefix.equals(key.resolvedPrefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(locator), resolvedPrefix);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kumuluz.ee.rest.client.mp.providers;
+
+import com.kumuluz.ee.rest.client.mp.util.IncomingHeadersUtil;
+
+import javax.annotation.Priority;
+import javax.enterprise.inject.spi.CDI;
+import javax.ws.rs.ConstrainedTo;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.RuntimeType;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+
+/**
+ * Registers {@link IncomingHeadersInterceptor} only when incoming headers can be used by rest clients. If capture is
+ * not enabled when the application starts, a filter is registered which starts capturing once a rest client with a
+ * {@link org.eclipse.microprofile.rest.client.ext.ClientHeadersFactory} is created, e.g. with the
+ * {@link org.eclipse.microprofile.rest.client.RestClientBuilder}.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+@Provider
+@ConstrainedTo(RuntimeType.SERVER)
+public class IncomingHeadersFeature implements Feature {
+
+    @Override
+    public boolean configure(FeatureContext context) {
+        if (IncomingHeadersUtil.isCaptureEnabled()) {
+            context.register(IncomingHeadersInterceptor.class);
+            return true;
+        }
+        if (!IncomingHeadersUtil.isCaptureDisabled()) {
+            // request scoped, the contextual reference resolves to the instance of the current request
+            context.register(new DeferredCaptureFilter(CDI.current().select(IncomingHeadersInterceptor.class).get()));
+            return true;
+        }
+
+        return false;
+    }
+
+    @Priority(Priorities.USER + 5000)
+    private static class DeferredCaptureFilter implements ContainerRequestFilter {
+
+        private final IncomingHeadersInterceptor interceptor;
+
+        DeferredCaptureFilter(IncomingHeadersInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public void filter(ContainerRequestContext requestContext) throws IOException {
+            if (IncomingHeadersUtil.isClientHeadersFactoryUsed()) {
+                interceptor.filter(requestContext);
+            }
+        }
+    }
+}
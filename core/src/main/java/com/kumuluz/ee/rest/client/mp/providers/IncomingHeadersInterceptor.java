@@ -0,0 +1,62 @@
+package com.kumuluz.ee.rest.client.mp.providers;
+
+import com.kumuluz.ee.rest.client.mp.util.IncomingHeadersUtil;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.RequestScoped;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.IOException;
+import java.util.List;
+
+@Priority(Priorities.USER + 5000)
+@RequestScoped
+public class IncomingHeadersInterceptor implements ContainerRequestFilter {
+
+    // headers of the container request, copied only when requested by a ClientHeadersFactory
+    private MultivaluedMap<String, String> requestHeaders;
+
+    private MultivaluedMap<String, String> incomingHeaders;
+    private MultivaluedMap<String, String> propagatedHeaders;
+
+    public MultivaluedMap<String, String> getIncomingHeaders() {
+        if (incomingHeaders == null) {
+            MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+            if (requestHeaders != null) {
+                requestHeaders.forEach(headers::addAll);
+            }
+            incomingHeaders = headers;
+        }
+
+        return incomingHeaders;
+    }
+
+    /**
+     * Returns only the incoming headers configured for propagation with
+     * <code>org.eclipse.microprofile.rest.client.propagateHeaders</code>.
+     */
+    public MultivaluedMap<String, String> getPropagatedHeaders() {
+        if (propagatedHeaders == null) {
+            MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+            if (requestHeaders != null) {
+                for (String name : IncomingHeadersUtil.getPropagatedHeaderNames()) {
+                    List<String> values = requestHeaders.get(name);
+                    if (values != null) {
+                        headers.addAll(name, values);
+                    }
+                }
+            }
+            propagatedHeaders = headers;
+        }
+
+        return propagatedHeaders;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        this.requestHeaders = requestContext.getHeaders();
+    }
+}
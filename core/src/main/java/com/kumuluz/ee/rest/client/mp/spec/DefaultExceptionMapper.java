@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.spec;
+
+import org.eclipse.microprofile.rest.client.ext.ResponseExceptionMapper;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Default {@link ResponseExceptionMapper}.
+ *
+ * @author Miha Jamsek
+ * @since 1.0.1
+ */
+public class DefaultExceptionMapper implements ResponseExceptionMapper {
+
+    private final Set<Integer> stacklessStatuses;
+
+    public DefaultExceptionMapper() {
+        this(Collections.emptySet());
+    }
+
+    /**
+     * @param stacklessStatuses expected error statuses, exceptions for these statuses are created without a stack trace
+     */
+    public DefaultExceptionMapper(Set<Integer> stacklessStatuses) {
+        this.stacklessStatuses = stacklessStatuses;
+    }
+
+    @Override
+    public Throwable toThrowable(Response response) {
+        String message = "Unknown Rest Client error! Status code is: " + response.getStatus();
+        if (stacklessStatuses.contains(response.getStatus())) {
+            return new StacklessWebApplicationException(message, response);
+        }
+        return new WebApplicationException(message, response);
+    }
+
+    @Override
+    public int getPriority() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean handles(int status, MultivaluedMap headers) {
+        return status >= 400;
+    }
+
+    /**
+     * {@link WebApplicationException} which does not fill in the stack trace.
+     */
+    private static class StacklessWebApplicationException extends WebApplicationException {
+
+        private static final long serialVersionUID = 1L;
+
+        StacklessWebApplicationException(String message, Response response) {
+            super(message, response);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
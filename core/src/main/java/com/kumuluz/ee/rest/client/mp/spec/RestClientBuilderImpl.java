@@ -21,18 +21,23 @@
 package com.kumuluz.ee.rest.client.mp.spec;
 
 import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.rest.client.mp.executor.ExecutorServiceRegistry;
+import com.kumuluz.ee.rest.client.mp.invoker.AsyncInvocationMode;
+import com.kumuluz.ee.rest.client.mp.invoker.MethodInvocationPlan;
 import com.kumuluz.ee.rest.client.mp.invoker.RestClientInvoker;
 import com.kumuluz.ee.rest.client.mp.providers.CustomJsonValueBodyReader;
 import com.kumuluz.ee.rest.client.mp.providers.CustomJsonValueBodyWriter;
+import com.kumuluz.ee.rest.client.mp.transport.TransportOptions;
+import com.kumuluz.ee.rest.client.mp.transport.TransportProperties;
+import com.kumuluz.ee.rest.client.mp.transport.TransportProvider;
+import com.kumuluz.ee.rest.client.mp.transport.TransportProviderRegistry;
 import com.kumuluz.ee.rest.client.mp.util.*;
-import org.eclipse.jetty.client.WWWAuthenticationProtocolHandler;
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.eclipse.microprofile.rest.client.RestClientDefinitionException;
 import org.eclipse.microprofile.rest.client.ext.AsyncInvocationInterceptorFactory;
 import org.eclipse.microprofile.rest.client.ext.ResponseExceptionMapper;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import org.eclipse.microprofile.rest.client.spi.RestClientListener;
-import org.glassfish.jersey.jetty.connector.JettyClientProperties;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 
 import javax.annotation.Priority;
@@ -43,12 +48,13 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.core.Configuration;
 import java.io.*;
-import java.lang.reflect.Proxy;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.util.*;
@@ -79,6 +85,12 @@ public class RestClientBuilderImpl implements RestClientBuilder {
     private KeyStore trustStore;
     private HostnameVerifier hostnameVerifier;
 
+    // identify the SSL configuration when sharing transports; objects set programmatically are compared by identity,
+    // configured ones by their configuration
+    private Object keyStoreIdentity;
+    private Object trustStoreIdentity;
+    private Object hostnameVerifierIdentity;
+
     private Set<Object> customProviders;
     private Map<Class, Map<Class<?>, Integer>> customProvidersContracts;
 
@@ -152,6 +164,7 @@ public class RestClientBuilderImpl implements RestClientBuilder {
     @Override
     public RestClientBuilder trustStore(KeyStore trustStore) {
         this.trustStore = trustStore;
+        this.trustStoreIdentity = trustStore;
         return this;
     }
 
@@ -159,12 +172,14 @@ public class RestClientBuilderImpl implements RestClientBuilder {
     public RestClientBuilder keyStore(KeyStore keyStore, String password) {
         this.keyStore = keyStore;
         this.keyStorePassword = password;
+        this.keyStoreIdentity = keyStore;
         return this;
     }
 
     @Override
     public RestClientBuilder hostnameVerifier(HostnameVerifier hostnameVerifier) {
         this.hostnameVerifier = hostnameVerifier;
+        this.hostnameVerifierIdentity = hostnameVerifier;
         return this;
     }
 
@@ -175,7 +190,10 @@ public class RestClientBuilderImpl implements RestClientBuilder {
 
         this.restClientListeners.forEach(rcl -> rcl.onNewClient(apiClass, this));
 
-        InterfaceValidatorUtil.validateApiInterface(apiClass);
+        if (!RestClientIndexUtil.isIndexed(apiClass)) {
+            // indexed interfaces were validated at compile time
+            InterfaceValidatorUtil.validateApiInterface(apiClass);
+        }
 
         if (!isRunningInContainer()) {
             // fixes exception in InvokeWithJsonPProviderTest, which happens when @BeforeTest gets executed on client
@@ -241,6 +259,7 @@ public class RestClientBuilderImpl implements RestClientBuilder {
         if (this.readTimeoutUnit != null) {
             this.clientBuilder.readTimeout(this.readTimeout, this.readTimeoutUnit);
         }
+        configureTransport(apiClass);
 
         // configure ssl
         if (trustStore == null) {
@@ -248,6 +267,7 @@ public class RestClientBuilderImpl implements RestClientBuilder {
 
             if (trustStore != null) {
                 this.trustStore(trustStore);
+                this.trustStoreIdentity = getKeyStoreConfigIdentity(apiClass, "trustStore");
             }
         }
         if (hostnameVerifier == null) {
@@ -259,6 +279,7 @@ public class RestClientBuilderImpl implements RestClientBuilder {
                     Class<?> hostnameVerifier = Class.forName(hostnameVerifierClass.get());
                     if (HostnameVerifier.class.isAssignableFrom(hostnameVerifier)) {
                         this.hostnameVerifier((HostnameVerifier) hostnameVerifier.newInstance());
+                        this.hostnameVerifierIdentity = "config:" + hostnameVerifierClass.get();
                     } else {
                         throw new IllegalStateException("Class " + hostnameVerifierClass.get() +
                                 " is not a HostnameVerifier.");
@@ -277,6 +298,7 @@ public class RestClientBuilderImpl implements RestClientBuilder {
                         .orElse(null); // orElse not reachable
 
                 this.keyStore(keyStore, password);
+                this.keyStoreIdentity = getKeyStoreConfigIdentity(apiClass, "keyStore");
             }
         }
         if (this.keyStore != null) {
@@ -297,36 +319,107 @@ public class RestClientBuilderImpl implements RestClientBuilder {
         clientBuilder.register(MultiPartFeature.class);
 
         if (!MapperDisabledUtil.isMapperDisabled(this.clientBuilder)) {
-            register(DefaultExceptionMapper.class);
+            register(new DefaultExceptionMapper(getStacklessExceptionStatuses(apiClass)));
         }
 
-        if (ConfigurationUtil.getInstance().getBoolean("kumuluzee.rest-client.enable-ssl-hostname-verification")
-                .orElse(hostnameVerifier == null)) {
-            clientBuilder.property(JettyClientProperties.ENABLE_SSL_HOSTNAME_VERIFICATION, true);
-        }
+        boolean hostnameVerification = ConfigurationUtil.getInstance()
+                .getBoolean("kumuluzee.rest-client.enable-ssl-hostname-verification").orElse(hostnameVerifier == null);
+        TransportOptions transportOptions = new TransportOptions(apiClass, hostnameVerifier, hostnameVerification,
+                Arrays.asList(sslContext, keyStoreIdentity, trustStoreIdentity, hostnameVerifierIdentity));
+        TransportProvider transportProvider = TransportProviderRegistry.getProvider(getTransportProviderName(apiClass));
 
+        transportProvider.configure(clientBuilder, transportOptions);
         Client client = clientBuilder.build();
+        transportProvider.afterBuild(client, transportOptions);
 
-        if (this.hostnameVerifier != null) {
-            // Jetty connector does not yet support setting the hostname verifier, fix it manually
-            JettyClientUtil.getHttpClient(client).getSslContextFactory().setEndpointIdentificationAlgorithm(null);
-            JettyClientUtil.getHttpClient(client).getSslContextFactory().setHostnameVerifier(hostnameVerifier);
-        }
-
-        if (ConfigurationUtil.getInstance().getBoolean("kumuluzee.rest-client.disable-jetty-www-auth")
-                .orElse(false)) {
-            JettyClientUtil.getHttpClient(client).getProtocolHandlers()
-                    .remove(WWWAuthenticationProtocolHandler.NAME);
+        if (this.executorService == null) {
+            this.executorService = ExecutorServiceRegistry.getExecutorService(apiClass);
         }
 
         RestClientInvoker rcInvoker = new RestClientInvoker(
                 client,
-                baseURI.toString(),
                 this.getConfiguration(),
-                this.executorService);
+                this.executorService,
+                MethodInvocationPlan.compile(apiClass, baseURI.toString()),
+                getAsyncInvocationMode(apiClass));
+
+        return rcInvoker.createClient(apiClass);
+    }
+
+    private AsyncInvocationMode getAsyncInvocationMode(Class<?> apiClass) {
+        Optional<String> asyncMode = RegistrationConfigUtil.getConfigurationParameter(apiClass, "asyncMode",
+                String.class, true);
+
+        if (!asyncMode.isPresent()) {
+            asyncMode = ConfigurationUtil.getInstance().get("kumuluzee.rest-client.async-mode");
+        }
+
+        return asyncMode.map(AsyncInvocationMode::fromConfigValue).orElse(AsyncInvocationMode.EXECUTOR);
+    }
+
+    /**
+     * Sets the protocol and connection pool properties from the registration configuration, unless they were set with
+     * {@link #property(String, Object)}.
+     */
+    private void configureTransport(Class<?> apiClass) {
+        configureTransportProperty(apiClass, "maxConnectionsPerDestination", Integer.class,
+                TransportProperties.MAX_CONNECTIONS_PER_DESTINATION);
+        configureTransportProperty(apiClass, "maxRequestsQueuedPerDestination", Integer.class,
+                TransportProperties.MAX_REQUESTS_QUEUED_PER_DESTINATION);
+        configureTransportProperty(apiClass, "idleTimeout", Long.class, TransportProperties.IDLE_TIMEOUT);
+        configureTransportProperty(apiClass, "connectionMaxLifetime", Long.class,
+                TransportProperties.CONNECTION_MAX_LIFETIME);
+        configureTransportProperty(apiClass, "protocol", String.class, TransportProperties.PROTOCOL);
+        configureTransportProperty(apiClass, "maxConcurrentStreams", Integer.class,
+                TransportProperties.MAX_CONCURRENT_STREAMS);
+    }
 
-        return (T) Proxy.newProxyInstance(this.getClass().getClassLoader(),
-                new Class[]{apiClass, Closeable.class, AutoCloseable.class}, rcInvoker);
+    private <T> void configureTransportProperty(Class<?> apiClass, String key, Class<T> type, String property) {
+        if (clientBuilder.getConfiguration().getProperty(property) == null) {
+            RegistrationConfigUtil.getConfigurationParameter(apiClass, key, type, true)
+                    .ifPresent(value -> clientBuilder.property(property, value));
+        }
+    }
+
+    private String getTransportProviderName(Class<?> apiClass) {
+        Object property = clientBuilder.getConfiguration().getProperty(TransportProperties.TRANSPORT_PROVIDER);
+        if (property != null) {
+            return property.toString();
+        }
+
+        Optional<String> name = RegistrationConfigUtil.getConfigurationParameter(apiClass, "transportProvider",
+                String.class, true);
+        if (!name.isPresent()) {
+            name = ConfigurationUtil.getInstance().get(TransportProperties.TRANSPORT_PROVIDER);
+        }
+
+        return name.orElse(TransportProviderRegistry.DEFAULT_PROVIDER);
+    }
+
+    private Set<Integer> getStacklessExceptionStatuses(Class<?> apiClass) {
+        Optional<String> statuses = RegistrationConfigUtil.getConfigurationParameter(apiClass,
+                "stacklessExceptionStatuses", String.class, true);
+
+        if (!statuses.isPresent()) {
+            statuses = ConfigurationUtil.getInstance().get("kumuluzee.rest-client.stackless-exception-statuses");
+        }
+
+        if (!statuses.isPresent()) {
+            return Collections.emptySet();
+        }
+
+        Set<Integer> stacklessStatuses = new HashSet<>();
+        for (String status : statuses.get().split(",")) {
+            if (!status.trim().isEmpty()) {
+                try {
+                    stacklessStatuses.add(Integer.parseInt(status.trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalStateException("Invalid status code in stackless exception statuses for " +
+                            apiClass + ": " + status, e);
+                }
+            }
+        }
+        return stacklessStatuses;
     }
 
     private KeyStore getKeyStoreFromConfig(Class<?> apiClass, String configPrefix) {
@@ -359,6 +452,28 @@ public class RestClientBuilderImpl implements RestClientBuilder {
         }
     }
 
+    private static String getKeyStoreConfigIdentity(Class<?> apiClass, String configPrefix) {
+        return "config:" + configPrefix + ":" +
+                RegistrationConfigUtil.getConfigurationParameter(apiClass, configPrefix, String.class, true)
+                        .orElse("") + ":" +
+                RegistrationConfigUtil.getConfigurationParameter(apiClass, configPrefix + "Type", String.class, true)
+                        .orElse("JKS") + ":" +
+                RegistrationConfigUtil.getConfigurationParameter(apiClass, configPrefix + "Password", String.class,
+                        true).map(RestClientBuilderImpl::digest).orElse("");
+    }
+
+    /**
+     * Returns the SHA-256 digest of the password, so that the transport identity does not retain the password.
+     */
+    private static String digest(String password) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private InputStream getKeystoreStream(String location) throws FileNotFoundException {
 
         if (location.startsWith("classpath:")) {
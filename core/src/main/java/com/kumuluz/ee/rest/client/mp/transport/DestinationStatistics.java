@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.api.Destination;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of the connection pool and request queue of a single destination of a Jetty client.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class DestinationStatistics {
+
+    private final String destination;
+    private final int maxConnections;
+    private final int connections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int pendingConnections;
+    private final int queuedRequests;
+
+    private DestinationStatistics(HttpDestination destination, int maxConnections) {
+        this.destination = destination.getScheme() + "://" + destination.getHost() + ":" + destination.getPort();
+        this.maxConnections = maxConnections;
+        this.queuedRequests = destination.getQueuedRequestCount();
+
+        ConnectionPool connectionPool = destination.getConnectionPool();
+        if (connectionPool instanceof AbstractConnectionPool) {
+            AbstractConnectionPool pool = (AbstractConnectionPool) connectionPool;
+            this.connections = pool.getConnectionCount();
+            this.activeConnections = pool.getActiveConnectionCount();
+            this.idleConnections = pool.getIdleConnectionCount();
+            this.pendingConnections = pool.getPendingConnectionCount();
+        } else {
+            this.connections = -1;
+            this.activeConnections = -1;
+            this.idleConnections = -1;
+            this.pendingConnections = -1;
+        }
+    }
+
+    /**
+     * Returns the statistics of all destinations of the client.
+     */
+    public static List<DestinationStatistics> of(HttpClient httpClient) {
+        List<DestinationStatistics> statistics = new ArrayList<>();
+        for (Destination destination : httpClient.getDestinations()) {
+            if (destination instanceof HttpDestination) {
+                statistics.add(new DestinationStatistics((HttpDestination) destination,
+                        httpClient.getMaxConnectionsPerDestination()));
+            }
+        }
+        return statistics;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getPendingConnections() {
+        return pendingConnections;
+    }
+
+    public int getQueuedRequests() {
+        return queuedRequests;
+    }
+
+    @Override
+    public String toString() {
+        return "DestinationStatistics{destination=" + destination + ", maxConnections=" + maxConnections +
+                ", connections=" + connections + ", activeConnections=" + activeConnections +
+                ", idleConnections=" + idleConnections + ", pendingConnections=" + pendingConnections +
+                ", queuedRequests=" + queuedRequests + "}";
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import com.kumuluz.ee.rest.client.mp.util.VirtualThreadsUtil;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.Statuses;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Jersey connector sending requests with the JDK {@link HttpClient}. Request entities are buffered before they are
+ * sent, response entities are streamed.
+ * <p>
+ * Supported client properties are {@link ClientProperties#CONNECT_TIMEOUT}, {@link ClientProperties#READ_TIMEOUT},
+ * {@link ClientProperties#FOLLOW_REDIRECTS}, {@link ClientProperties#PROXY_URI} and
+ * {@link TransportProperties#PROTOCOL}. HTTP/2 is used by default, falling back to HTTP/1.1 if the server does not
+ * support it.
+ * <p>
+ * On Java 11 the JDK client also rejects the Date, From, Origin, Referer, Via and Warning headers. These headers are
+ * not sent when running on Java 11, a warning is logged the first time each of them is skipped.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class JdkConnector implements Connector {
+
+    private static final Logger LOG = Logger.getLogger(JdkConnector.class.getSimpleName());
+
+    // headers set by the JDK client, which cannot be set on a request
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    // headers rejected by the JDK client on Java 11 only
+    private static final Set<String> UNSUPPORTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private static final Set<String> REPORTED_HEADERS = ConcurrentHashMap.newKeySet();
+
+    static {
+        RESTRICTED_HEADERS.addAll(Arrays.asList("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+
+        if (Runtime.version().feature() < 12) {
+            UNSUPPORTED_HEADERS.addAll(Arrays.asList("Date", "From", "Origin", "Referer", "Via", "Warning"));
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final ExecutorService executorService;
+
+    public JdkConnector(Client client, Configuration config, boolean virtualThreads) {
+        Map<String, Object> properties = config.getProperties();
+
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .sslContext(client.getSslContext())
+                .version(getVersion(config));
+
+        int connectTimeout = ClientProperties.getValue(properties, ClientProperties.CONNECT_TIMEOUT, 0, Integer.class);
+        if (connectTimeout > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+        }
+
+        boolean followRedirects = ClientProperties.getValue(properties, ClientProperties.FOLLOW_REDIRECTS, true,
+                Boolean.class);
+        builder.followRedirects(followRedirects ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER);
+
+        Object proxyUri = config.getProperty(ClientProperties.PROXY_URI);
+        if (proxyUri != null) {
+            URI uri = (proxyUri instanceof URI) ? (URI) proxyUri : URI.create(proxyUri.toString());
+            builder.proxy(ProxySelector.of(new InetSocketAddress(uri.getHost(), uri.getPort())));
+        }
+
+        if (virtualThreads) {
+            executorService = VirtualThreadsUtil.newVirtualThreadPerTaskExecutor();
+            builder.executor(executorService);
+        } else {
+            executorService = null;
+        }
+
+        this.httpClient = builder.build();
+    }
+
+    private static HttpClient.Version getVersion(Configuration config) {
+        Object protocol = config.getProperty(TransportProperties.PROTOCOL);
+        if (protocol == null || protocol.toString().equalsIgnoreCase("h2") ||
+                protocol.toString().equalsIgnoreCase("h2c")) {
+            return HttpClient.Version.HTTP_2;
+        } else if (protocol.toString().equalsIgnoreCase("http/1.1")) {
+            return HttpClient.Version.HTTP_1_1;
+        }
+
+        throw new IllegalArgumentException("Unsupported protocol " + protocol + ", supported protocols are " +
+                "http/1.1, h2 and h2c.");
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    public ClientResponse apply(ClientRequest request) {
+        HttpRequest httpRequest = createRequest(request);
+
+        try {
+            return createResponse(request, httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofInputStream()));
+        } catch (IOException e) {
+            throw new ProcessingException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        }
+    }
+
+    @Override
+    public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = createRequest(request);
+        } catch (Throwable t) {
+            callback.failure(t);
+            return CompletableFuture.failedFuture(t);
+        }
+
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream())
+                .whenComplete((response, failure) -> {
+                    if (failure != null) {
+                        callback.failure((failure instanceof CompletionException && failure.getCause() != null) ?
+                                failure.getCause() : failure);
+                        return;
+                    }
+                    try {
+                        callback.response(createResponse(request, response));
+                    } catch (Throwable t) {
+                        callback.failure(t);
+                    }
+                });
+    }
+
+    private static HttpRequest createRequest(ClientRequest request) {
+        // the entity is serialized first, since writing it may add headers
+        byte[] entity = ConnectorUtil.writeEntity(request);
+        HttpRequest.BodyPublisher body = (entity == null) ? HttpRequest.BodyPublishers.noBody() :
+                HttpRequest.BodyPublishers.ofByteArray(entity);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri())
+                .method(request.getMethod(), body);
+
+        int readTimeout = request.resolveProperty(ClientProperties.READ_TIMEOUT, 0);
+        if (readTimeout > 0) {
+            builder.timeout(Duration.ofMillis(readTimeout));
+        }
+
+        for (Map.Entry<String, List<String>> header : request.getStringHeaders().entrySet()) {
+            if (RESTRICTED_HEADERS.contains(header.getKey())) {
+                continue;
+            }
+            if (UNSUPPORTED_HEADERS.contains(header.getKey())) {
+                if (REPORTED_HEADERS.add(header.getKey().toLowerCase(Locale.ROOT))) {
+                    LOG.warning("The " + header.getKey() + " header cannot be sent with the jdk transport provider " +
+                            "on Java 11 and will be skipped. Use Java 12 or later or a different transport provider.");
+                }
+                continue;
+            }
+
+            for (String value : header.getValue()) {
+                builder.header(header.getKey(), value);
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static ClientResponse createResponse(ClientRequest request, HttpResponse<InputStream> response) {
+        ClientResponse clientResponse = new ClientResponse(Statuses.from(response.statusCode()), request);
+        clientResponse.setResolvedRequestUri(response.uri());
+
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            // skip HTTP/2 pseudo headers
+            if (!header.getKey().startsWith(":")) {
+                clientResponse.getHeaders().addAll(header.getKey(), header.getValue());
+            }
+        }
+
+        clientResponse.setEntityStream(response.body());
+        return clientResponse;
+    }
+
+    @Override
+    public String getName() {
+        return "JDK HttpClient " + httpClient.version();
+    }
+
+    @Override
+    public void close() {
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+    }
+}
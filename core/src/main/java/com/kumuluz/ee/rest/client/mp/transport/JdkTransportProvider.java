@@ -0,0 +1,59 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import com.kumuluz.ee.rest.client.mp.util.VirtualThreadsUtil;
+import org.glassfish.jersey.client.ClientConfig;
+
+import javax.ws.rs.client.ClientBuilder;
+import java.util.logging.Logger;
+
+/**
+ * Transport sending requests with the JDK {@link java.net.http.HttpClient}, see {@link JdkConnector}.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class JdkTransportProvider implements TransportProvider {
+
+    private static final Logger LOG = Logger.getLogger(JdkTransportProvider.class.getSimpleName());
+
+    @Override
+    public String getName() {
+        return "jdk";
+    }
+
+    @Override
+    public void configure(ClientBuilder clientBuilder, TransportOptions options) {
+        if (options.getHostnameVerifier() != null) {
+            throw new IllegalStateException("The jdk transport does not support custom hostname verifiers, use the " +
+                    "jetty transport for " + options.getApiClass().getName() + ".");
+        }
+        if (!options.isHostnameVerification()) {
+            LOG.warning("Hostname verification cannot be disabled for the jdk transport, it remains enabled for " +
+                    options.getApiClass().getName() + ".");
+        }
+
+        ((ClientConfig) clientBuilder.getConfiguration())
+                .connectorProvider((client, runtimeConfig) -> new JdkConnector(client, runtimeConfig,
+                        VirtualThreadsUtil.isEnabled()));
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import com.kumuluz.ee.rest.client.mp.util.ExtendedConfiguration;
+import com.kumuluz.ee.rest.client.mp.util.JettyClientUtil;
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpClientTransport;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.MultiplexConnectionPool;
+import org.eclipse.jetty.client.api.Connection;
+import org.eclipse.jetty.client.dynamic.HttpClientTransportDynamic;
+import org.eclipse.jetty.client.http.HttpClientConnectionFactory;
+import org.eclipse.jetty.http2.HTTP2Session;
+import org.eclipse.jetty.http2.api.Session;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.ClientConnectionFactoryOverHTTP2;
+import org.eclipse.jetty.http2.client.http.HttpConnectionOverHTTP2;
+import org.eclipse.jetty.io.ClientConnectionFactory;
+import org.eclipse.jetty.io.ClientConnector;
+import org.eclipse.jetty.util.HttpCookieStore;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+import org.glassfish.jersey.jetty.connector.Jetty10Connector;
+import org.glassfish.jersey.jetty.connector.JettyClientProperties;
+import org.glassfish.jersey.jetty.connector.JettyHttpClientSupplier;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import java.util.*;
+
+/**
+ * Provides {@link Jetty10Connector} with a Jetty {@link HttpClient} created and configured by the rest client. The
+ * client is constructed the same way as in the connector itself and is passed to the connector with
+ * {@link JettyHttpClientSupplier}.
+ * <p>
+ * If sharing is enabled, rest clients with the same transport configuration (SSL configuration, connector properties
+ * and thread model) use the same client, which is obtained from the {@link TransportRegistry}.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class JettyConnectorProvider implements ConnectorProvider {
+
+    // properties which are added to the client by the connector rather than set, applied once per shared client
+    private static final Set<String> ACCUMULATING_PROPERTIES = new HashSet<>(Arrays.asList(
+            ClientProperties.PROXY_URI,
+            ClientProperties.PROXY_USERNAME,
+            ClientProperties.PROXY_PASSWORD,
+            ClientProperties.ASYNC_THREADPOOL_SIZE,
+            JettyClientProperties.PREEMPTIVE_BASIC_AUTHENTICATION));
+
+    private final boolean shared;
+    private final List<Object> sslIdentity;
+    private final boolean sharedResources;
+
+    public JettyConnectorProvider() {
+        this(false, Collections.emptyList());
+    }
+
+    public JettyConnectorProvider(boolean shared, List<Object> sslIdentity) {
+        this(shared, sslIdentity, false);
+    }
+
+    /**
+     * @param shared          share the client with rest clients with the same transport configuration
+     * @param sslIdentity     objects identifying the SSL configuration of the rest client, compared by identity unless
+     *                        they are strings
+     * @param sharedResources use the process-wide thread pool, scheduler and buffer pools, see
+     *                        {@link JettyClientUtil#useSharedResources(HttpClient)}
+     */
+    public JettyConnectorProvider(boolean shared, List<Object> sslIdentity, boolean sharedResources) {
+        this.shared = shared;
+        this.sslIdentity = sslIdentity;
+        this.sharedResources = sharedResources;
+    }
+
+    @Override
+    public Connector getConnector(Client client, Configuration runtimeConfig) {
+        if (!shared) {
+            return createConnector(client, runtimeConfig, createHttpClient(client, runtimeConfig),
+                    getHiddenProperties(false));
+        }
+
+        TransportKey key = new TransportKey(sslIdentity, getConnectorProperties(runtimeConfig));
+        TransportRegistry.SharedTransport transport = TransportRegistry.acquire(key, () -> {
+            HttpClient httpClient = createHttpClient(client, runtimeConfig);
+            // cookies are stored per connector, see SharedJettyConnector
+            httpClient.setCookieStore(new HttpCookieStore.Empty());
+            return httpClient;
+        });
+
+        try {
+            Jetty10Connector connector;
+            synchronized (transport) {
+                Set<String> hiddenProperties = getHiddenProperties(!transport.markConfigured());
+                connector = createConnector(client, runtimeConfig, transport.getHttpClient(), hiddenProperties);
+            }
+            boolean cookiesDisabled = Boolean.TRUE.equals(
+                    runtimeConfig.getProperty(JettyClientProperties.DISABLE_COOKIES));
+            return new SharedJettyConnector(connector, transport, !cookiesDisabled);
+        } catch (RuntimeException e) {
+            TransportRegistry.release(transport);
+            throw e;
+        }
+    }
+
+    private Set<String> getHiddenProperties(boolean alreadyConfigured) {
+        if (alreadyConfigured) {
+            return ACCUMULATING_PROPERTIES;
+        }
+        // the connector would replace the shared thread pool with its own
+        return sharedResources ? Collections.singleton(ClientProperties.ASYNC_THREADPOOL_SIZE) :
+                Collections.emptySet();
+    }
+
+    private static Jetty10Connector createConnector(Client client, Configuration runtimeConfig, HttpClient httpClient,
+                                                    Set<String> hiddenProperties) {
+        Configuration configuration = new ExtendedConfiguration(runtimeConfig,
+                Collections.singleton(new JettyHttpClientSupplier(httpClient)), Collections.emptyMap(),
+                hiddenProperties);
+
+        return new Jetty10Connector(client, configuration);
+    }
+
+    /**
+     * Returns the properties of the client which are used by the connector or the connection pool. Read timeout is
+     * applied per request and is not included.
+     */
+    private static Map<String, Object> getConnectorProperties(Configuration runtimeConfig) {
+        Map<String, Object> properties = new HashMap<>();
+        for (Map.Entry<String, Object> property : runtimeConfig.getProperties().entrySet()) {
+            String name = property.getKey();
+            if ((name.startsWith("jersey.config.client.") || name.startsWith("jersey.config.jetty.client.") ||
+                    name.startsWith(TransportProperties.PREFIX)) &&
+                    !name.equals(ClientProperties.READ_TIMEOUT)) {
+                properties.put(name, property.getValue());
+            }
+        }
+        return properties;
+    }
+
+    private HttpClient createHttpClient(Client client, Configuration runtimeConfig) {
+        SslContextFactory.Client sslContextFactory = new SslContextFactory.Client();
+        sslContextFactory.setSslContext(client.getSslContext());
+
+        ClientConnector clientConnector = new ClientConnector();
+        clientConnector.setSslContextFactory(sslContextFactory);
+
+        HttpClient httpClient = new HttpClient(createTransport(clientConnector, runtimeConfig));
+
+        if (sharedResources) {
+            JettyClientUtil.useSharedResources(httpClient);
+        }
+
+        configureConnectionPool(httpClient, runtimeConfig);
+        TransportStatistics.register(httpClient);
+
+        return httpClient;
+    }
+
+    private static HttpClientTransport createTransport(ClientConnector clientConnector, Configuration runtimeConfig) {
+        String protocol = (String) runtimeConfig.getProperty(TransportProperties.PROTOCOL);
+        if (protocol == null || protocol.equalsIgnoreCase("http/1.1")) {
+            return new HttpClientTransportDynamic(clientConnector);
+        }
+
+        ClientConnectionFactory.Info http11 = HttpClientConnectionFactory.HTTP11;
+        ClientConnectionFactory.Info http2 = new ClientConnectionFactoryOverHTTP2.HTTP2(
+                new HTTP2Client(clientConnector));
+
+        // the first protocol is used for cleartext connections, TLS connections negotiate any of them with ALPN
+        if (protocol.equalsIgnoreCase("h2")) {
+            return new HttpClientTransportDynamic(clientConnector, http11, http2);
+        } else if (protocol.equalsIgnoreCase("h2c")) {
+            return new HttpClientTransportDynamic(clientConnector, http2, http11);
+        }
+
+        throw new IllegalArgumentException("Unsupported protocol " + protocol + ", supported protocols are " +
+                "http/1.1, h2 and h2c.");
+    }
+
+    private static void configureConnectionPool(HttpClient httpClient, Configuration runtimeConfig) {
+        Number maxConnections = (Number) runtimeConfig.getProperty(
+                TransportProperties.MAX_CONNECTIONS_PER_DESTINATION);
+        if (maxConnections != null) {
+            httpClient.setMaxConnectionsPerDestination(maxConnections.intValue());
+        }
+        Number maxQueued = (Number) runtimeConfig.getProperty(
+                TransportProperties.MAX_REQUESTS_QUEUED_PER_DESTINATION);
+        if (maxQueued != null) {
+            httpClient.setMaxRequestsQueuedPerDestination(maxQueued.intValue());
+        }
+        Number idleTimeout = (Number) runtimeConfig.getProperty(TransportProperties.IDLE_TIMEOUT);
+        if (idleTimeout != null) {
+            httpClient.setIdleTimeout(idleTimeout.longValue());
+        }
+        Number maxStreams = (Number) runtimeConfig.getProperty(TransportProperties.MAX_CONCURRENT_STREAMS);
+        if (maxStreams != null) {
+            httpClient.getTransport().setConnectionPoolFactory(destination -> new BoundedMultiplexConnectionPool(
+                    destination, httpClient.getMaxConnectionsPerDestination(), maxStreams.intValue()));
+        }
+        Number maxLifetime = (Number) runtimeConfig.getProperty(TransportProperties.CONNECTION_MAX_LIFETIME);
+        if (maxLifetime != null) {
+            HttpClientTransport transport = httpClient.getTransport();
+            ConnectionPool.Factory factory = transport.getConnectionPoolFactory();
+            transport.setConnectionPoolFactory(destination -> {
+                ConnectionPool connectionPool = factory.newConnectionPool(destination);
+                if (connectionPool instanceof AbstractConnectionPool) {
+                    ((AbstractConnectionPool) connectionPool).setMaxDuration(maxLifetime.longValue());
+                }
+                return connectionPool;
+            });
+        }
+    }
+
+    /**
+     * Connection pool which limits the number of requests multiplexed on a HTTP/2 connection. The limit announced by
+     * the server is used if it is lower. HTTP/1.1 connections are never multiplexed.
+     * <p>
+     * The pool asks HTTP/2 connections for their limit, which is the limit of concurrent streams of the session, so
+     * the session limit is lowered when the connection is added to the pool.
+     */
+    private static class BoundedMultiplexConnectionPool extends MultiplexConnectionPool {
+
+        private final int maxConcurrentStreams;
+
+        BoundedMultiplexConnectionPool(HttpDestination destination, int maxConnections, int maxConcurrentStreams) {
+            // applies to connections which do not announce their own limit
+            super(destination, maxConnections, false, destination, 1);
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        @Override
+        protected void onCreated(Connection connection) {
+            if (connection instanceof HttpConnectionOverHTTP2) {
+                Session session = ((HttpConnectionOverHTTP2) connection).getSession();
+                if (session instanceof HTTP2Session) {
+                    HTTP2Session http2Session = (HTTP2Session) session;
+                    int maxLocalStreams = http2Session.getMaxLocalStreams();
+                    http2Session.setMaxLocalStreams((maxLocalStreams > 0) ?
+                            Math.min(maxLocalStreams, maxConcurrentStreams) : maxConcurrentStreams);
+                }
+            }
+            super.onCreated(connection);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.rest.client.mp.util.JettyClientUtil;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.WWWAuthenticationProtocolHandler;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.jetty.connector.JettyClientProperties;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+
+/**
+ * Transport sending requests with the Jetty HTTP client, see {@link JettyConnectorProvider}.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class JettyTransportProvider implements TransportProvider {
+
+    @Override
+    public String getName() {
+        return "jetty";
+    }
+
+    @Override
+    public void configure(ClientBuilder clientBuilder, TransportOptions options) {
+        if (options.isHostnameVerification()) {
+            clientBuilder.property(JettyClientProperties.ENABLE_SSL_HOSTNAME_VERIFICATION, true);
+        }
+
+        boolean sharedTransport = ConfigurationUtil.getInstance().getBoolean("kumuluzee.rest-client.transport.shared")
+                .orElse(false);
+        boolean sharedResources = ConfigurationUtil.getInstance()
+                .getBoolean("kumuluzee.rest-client.transport.shared-resources").orElse(false);
+        boolean transportConfigured = clientBuilder.getConfiguration().getPropertyNames().stream()
+                .anyMatch(name -> name.startsWith(TransportProperties.PREFIX));
+
+        if (sharedTransport || sharedResources || transportConfigured) {
+            ((ClientConfig) clientBuilder.getConfiguration()).connectorProvider(new JettyConnectorProvider(
+                    sharedTransport, options.getSslIdentity(), sharedResources));
+        }
+    }
+
+    @Override
+    public void afterBuild(Client client, TransportOptions options) {
+        if (options.getHostnameVerifier() != null) {
+            // Jetty connector does not yet support setting the hostname verifier, fix it manually
+            HttpClient httpClient = JettyClientUtil.getHttpClient(client);
+            httpClient.getSslContextFactory().setEndpointIdentificationAlgorithm(null);
+            httpClient.getSslContextFactory().setHostnameVerifier(options.getHostnameVerifier());
+        }
+
+        if (ConfigurationUtil.getInstance().getBoolean("kumuluzee.rest-client.disable-jetty-www-auth")
+                .orElse(false)) {
+            JettyClientUtil.getHttpClient(client).getProtocolHandlers()
+                    .remove(WWWAuthenticationProtocolHandler.NAME);
+        }
+    }
+}
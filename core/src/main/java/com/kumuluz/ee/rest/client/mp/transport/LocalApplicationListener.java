@@ -18,34 +18,31 @@
  *  software. See the License for the specific language governing permissions and
  *  limitations under the License.
  */
-package com.kumuluz.ee.rest.client.mp.spec;
+package com.kumuluz.ee.rest.client.mp.transport;
 
-import org.eclipse.microprofile.rest.client.ext.ResponseExceptionMapper;
-
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.MultivaluedMap;
-import javax.ws.rs.core.Response;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
 
 /**
- * Default {@link ResponseExceptionMapper}.
+ * Registers the JAX-RS applications running in this process with the {@link LocalApplicationRegistry}.
  *
- * @author Miha Jamsek
- * @since 1.0.1
+ * @author Urban Malc
+ * @since 2.1.0
  */
-public class DefaultExceptionMapper implements ResponseExceptionMapper {
+class LocalApplicationListener implements ContainerLifecycleListener {
 
     @Override
-    public Throwable toThrowable(Response response) {
-        return new WebApplicationException("Unknown Rest Client error! Status code is: " + response.getStatus(), response);
+    public void onStartup(Container container) {
+        LocalApplicationRegistry.register(container);
     }
 
     @Override
-    public int getPriority() {
-        return Integer.MAX_VALUE;
+    public void onReload(Container container) {
+        LocalApplicationRegistry.register(container);
     }
 
     @Override
-    public boolean handles(int status, MultivaluedMap headers) {
-        return status >= 400;
+    public void onShutdown(Container container) {
+        LocalApplicationRegistry.unregister(container);
     }
 }
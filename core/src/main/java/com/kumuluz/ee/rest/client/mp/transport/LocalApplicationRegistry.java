@@ -0,0 +1,183 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.servlet.ServletContainer;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletRegistration;
+import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.UriBuilder;
+import java.net.URI;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Keeps track of the JAX-RS applications running in this process, so that the local transport can dispatch requests
+ * directly to them. Applications are registered by {@link LocalApplicationListener}.
+ * <p>
+ * A request is local if its host is a loopback address or the host of {@code kumuluzee.server.base-url}, its port is
+ * the HTTP or HTTPS port of the server and its path is within the path of a registered application.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class LocalApplicationRegistry {
+
+    private static final Logger LOG = Logger.getLogger(LocalApplicationRegistry.class.getSimpleName());
+
+    private static final Set<String> LOOPBACK_HOSTS = new HashSet<>(Arrays.asList("localhost", "127.0.0.1",
+            "[::1]", "::1"));
+
+    private static final Map<Container, LocalApplication> APPLICATIONS = new LinkedHashMap<>();
+
+    private LocalApplicationRegistry() {
+    }
+
+    static synchronized void register(Container container) {
+        String basePath = getBasePath(container);
+        APPLICATIONS.put(container, new LocalApplication(container.getApplicationHandler(), basePath));
+        LOG.fine(() -> "Registered local JAX-RS application at " + basePath + "/");
+    }
+
+    static synchronized void unregister(Container container) {
+        APPLICATIONS.remove(container);
+    }
+
+    /**
+     * Returns the number of JAX-RS applications available to the local transport.
+     */
+    public static synchronized int getApplicationCount() {
+        return APPLICATIONS.size();
+    }
+
+    /**
+     * Returns the application serving the URI or null if the URI is not served by this process.
+     */
+    static synchronized LocalApplication find(URI uri) {
+        if (APPLICATIONS.isEmpty() || !isLocalAuthority(uri)) {
+            return null;
+        }
+
+        String path = (uri.getRawPath() == null) ? "" : uri.getRawPath();
+        LocalApplication match = null;
+        for (LocalApplication application : APPLICATIONS.values()) {
+            String basePath = application.getBasePath();
+            if ((path.equals(basePath) || path.startsWith(basePath + "/")) &&
+                    (match == null || basePath.length() > match.getBasePath().length())) {
+                match = application;
+            }
+        }
+        return match;
+    }
+
+    private static boolean isLocalAuthority(URI uri) {
+        if (uri.getHost() == null) {
+            return false;
+        }
+
+        ConfigurationUtil config = ConfigurationUtil.getInstance();
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+
+        Optional<URI> baseUrl = config.get("kumuluzee.server.base-url").map(URI::create);
+        if (baseUrl.isPresent() && host.equalsIgnoreCase(baseUrl.get().getHost()) &&
+                (baseUrl.get().getPort() == -1 || baseUrl.get().getPort() == port)) {
+            return true;
+        }
+
+        return LOOPBACK_HOSTS.contains(host) &&
+                (port == config.getInteger("kumuluzee.server.http.port").orElse(8080) ||
+                        port == config.getInteger("kumuluzee.server.https.port").orElse(8443));
+    }
+
+    /**
+     * Returns the path of the application without the trailing slash. The path of a servlet container is determined
+     * from the servlet mapping, otherwise the {@link ApplicationPath} annotation of the application is used.
+     */
+    private static String getBasePath(Container container) {
+        if (container instanceof ServletContainer) {
+            ServletConfig servletConfig = ((ServletContainer) container).getServletConfig();
+            if (servletConfig != null) {
+                String contextPath = servletConfig.getServletContext().getContextPath();
+                ServletRegistration registration = servletConfig.getServletContext()
+                        .getServletRegistration(servletConfig.getServletName());
+                if (registration != null) {
+                    for (String mapping : registration.getMappings()) {
+                        if (mapping.endsWith("/*")) {
+                            return trimSlash(contextPath + mapping.substring(0, mapping.length() - 2));
+                        }
+                    }
+                }
+            }
+        }
+
+        Application application = container.getConfiguration().getApplication();
+        ApplicationPath applicationPath = (application == null) ? null :
+                application.getClass().getAnnotation(ApplicationPath.class);
+        if (applicationPath == null) {
+            return "";
+        }
+        String path = applicationPath.value().startsWith("/") ? applicationPath.value() : "/" + applicationPath.value();
+        return trimSlash(path);
+    }
+
+    private static String trimSlash(String path) {
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    static class LocalApplication {
+
+        private final ApplicationHandler handler;
+        private final String basePath;
+
+        LocalApplication(ApplicationHandler handler, String basePath) {
+            this.handler = handler;
+            this.basePath = basePath;
+        }
+
+        ApplicationHandler getHandler() {
+            return handler;
+        }
+
+        String getBasePath() {
+            return basePath;
+        }
+
+        /**
+         * Returns the base URI of the application as seen by the request.
+         */
+        URI getBaseUri(URI requestUri) {
+            return UriBuilder.fromUri(requestUri).replacePath(basePath + "/").replaceQuery(null).fragment(null)
+                    .build();
+        }
+    }
+}
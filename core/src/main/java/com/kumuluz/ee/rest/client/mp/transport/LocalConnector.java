@@ -0,0 +1,311 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.rest.client.mp.util.VirtualThreadsUtil;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+
+import javax.enterprise.context.control.RequestContextController;
+import javax.enterprise.inject.spi.CDI;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.security.Principal;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Connector dispatching requests to JAX-RS applications running in the same process directly to their
+ * {@link org.glassfish.jersey.server.ApplicationHandler}, without opening a connection. Requests to other servers are
+ * sent with the delegate connector, which is created on first use.
+ * <p>
+ * Requests are handled on a separate thread in a new CDI request context, the same as requests received over the
+ * network. Client and server filters, providers and exception mappers are applied as usual, but the servlet request
+ * and response are not available to the resources.
+ * <p>
+ * The handler threads are shared by all local connectors. Their number is limited with
+ * <code>kumuluzee.rest-client.transport.local.max-threads</code>, requests exceeding the limit wait for a free thread.
+ * Requests that time out are cancelled and their handler thread is interrupted.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class LocalConnector implements Connector {
+
+    private static final Logger LOG = Logger.getLogger(LocalConnector.class.getSimpleName());
+
+    private static final String MAX_THREADS_CONFIG_KEY = "kumuluzee.rest-client.transport.local.max-threads";
+    private static final int DEFAULT_MAX_THREADS = 64;
+
+    private static ExecutorService executorService;
+
+    private final ConnectorProvider delegateProvider;
+    private final Client client;
+    private final Configuration runtimeConfig;
+    private volatile Connector delegate;
+
+    LocalConnector(ConnectorProvider delegateProvider, Client client, Configuration runtimeConfig) {
+        this.delegateProvider = delegateProvider;
+        this.client = client;
+        this.runtimeConfig = runtimeConfig;
+    }
+
+    /**
+     * Returns the connector used for requests to other servers.
+     */
+    public Connector getDelegate() {
+        if (delegate == null) {
+            synchronized (this) {
+                if (delegate == null) {
+                    delegate = delegateProvider.getConnector(client, runtimeConfig);
+                }
+            }
+        }
+        return delegate;
+    }
+
+    @Override
+    public ClientResponse apply(ClientRequest request) {
+        LocalApplicationRegistry.LocalApplication application = LocalApplicationRegistry.find(request.getUri());
+        if (application == null) {
+            return getDelegate().apply(request);
+        }
+
+        Future<ClientResponse> response = dispatch(request, application);
+        int readTimeout = request.resolveProperty(ClientProperties.READ_TIMEOUT, 0);
+        try {
+            return (readTimeout > 0) ? response.get(readTimeout, TimeUnit.MILLISECONDS) : response.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ProcessingException) {
+                throw (ProcessingException) e.getCause();
+            }
+            throw new ProcessingException(e.getCause());
+        } catch (TimeoutException e) {
+            response.cancel(true);
+            throw new ProcessingException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        }
+    }
+
+    @Override
+    public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+        LocalApplicationRegistry.LocalApplication application = LocalApplicationRegistry.find(request.getUri());
+        if (application == null) {
+            return getDelegate().apply(request, callback);
+        }
+
+        LocalTask task;
+        try {
+            task = new LocalTask(prepare(request, application), callback);
+            getExecutorService().execute(task);
+        } catch (Throwable t) {
+            callback.failure(t);
+            return CompletableFuture.failedFuture(t);
+        }
+        return task;
+    }
+
+    private static Future<ClientResponse> dispatch(ClientRequest request,
+                                                   LocalApplicationRegistry.LocalApplication application) {
+        return getExecutorService().submit(prepare(request, application));
+    }
+
+    /**
+     * Prepares the container request and returns the task handling it. The handler thread is interrupted when the
+     * returned task is cancelled.
+     */
+    private static Callable<ClientResponse> prepare(ClientRequest request,
+                                                              LocalApplicationRegistry.LocalApplication application) {
+        // the entity is serialized on the calling thread, where the client filters were applied
+        byte[] entity = ConnectorUtil.writeEntity(request);
+
+        URI requestUri = request.getUri();
+        ContainerRequest containerRequest = new ContainerRequest(application.getBaseUri(requestUri), requestUri,
+                request.getMethod(), new LocalSecurityContext("https".equalsIgnoreCase(requestUri.getScheme())),
+                new MapPropertiesDelegate(), application.getHandler().getConfiguration());
+        containerRequest.headers(request.getStringHeaders());
+        if (entity != null) {
+            containerRequest.setEntityStream(new ByteArrayInputStream(entity));
+        }
+
+        return () -> handle(request, containerRequest, application);
+    }
+
+    private static ClientResponse handle(ClientRequest request, ContainerRequest containerRequest,
+                                         LocalApplicationRegistry.LocalApplication application) {
+        RequestContextController requestContext = activateRequestContext();
+        try {
+            ByteArrayOutputStream entity = new ByteArrayOutputStream();
+            ContainerResponse containerResponse;
+            try {
+                containerResponse = application.getHandler().apply(containerRequest, entity).get();
+            } catch (ExecutionException e) {
+                // not mapped by the application, the servlet container responds with 500 in this case
+                LOG.log(Level.WARNING, "Unhandled exception in local request to " + request.getUri(), e.getCause());
+                ClientResponse clientResponse = new ClientResponse(Response.Status.INTERNAL_SERVER_ERROR, request);
+                clientResponse.setEntityStream(new ByteArrayInputStream(new byte[0]));
+                return clientResponse;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException(e);
+            }
+
+            ClientResponse clientResponse = new ClientResponse(containerResponse.getStatusInfo(), request);
+            clientResponse.getHeaders().putAll(containerResponse.getStringHeaders());
+            clientResponse.setEntityStream(new ByteArrayInputStream(entity.toByteArray()));
+            return clientResponse;
+        } finally {
+            if (requestContext != null) {
+                requestContext.deactivate();
+            }
+        }
+    }
+
+    /**
+     * Activates a new CDI request context on the current thread. Returns null if CDI is not available.
+     */
+    private static RequestContextController activateRequestContext() {
+        RequestContextController requestContext;
+        try {
+            requestContext = CDI.current().select(RequestContextController.class).get();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+        return requestContext.activate() ? requestContext : null;
+    }
+
+    private static synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            if (VirtualThreadsUtil.isEnabled()) {
+                executorService = VirtualThreadsUtil.newVirtualThreadPerTaskExecutor();
+            } else {
+                int maxThreads = ConfigurationUtil.getInstance().getInteger(MAX_THREADS_CONFIG_KEY)
+                        .orElse(DEFAULT_MAX_THREADS);
+                AtomicInteger threadNumber = new AtomicInteger();
+                ThreadPoolExecutor threadPool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "kumuluzee-rest-client-local-" +
+                            threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                threadPool.allowCoreThreadTimeOut(true);
+                executorService = threadPool;
+            }
+        }
+        return executorService;
+    }
+
+    /**
+     * Stops the handler threads shared by the local connectors. Requests still being handled are interrupted.
+     * Local requests sent afterwards start new handler threads.
+     */
+    public static synchronized void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Local";
+    }
+
+    @Override
+    public void close() {
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+
+    private static class LocalTask extends FutureTask<ClientResponse> {
+
+        private final AsyncConnectorCallback callback;
+
+        LocalTask(Callable<ClientResponse> callable, AsyncConnectorCallback callback) {
+            super(callable);
+            this.callback = callback;
+        }
+
+        @Override
+        protected void done() {
+            try {
+                callback.response(get());
+            } catch (ExecutionException e) {
+                callback.failure(e.getCause());
+            } catch (CancellationException e) {
+                callback.failure(e);
+            } catch (InterruptedException e) {
+                // not reachable, the task is complete
+                Thread.currentThread().interrupt();
+                callback.failure(e);
+            }
+        }
+    }
+
+    private static class LocalSecurityContext implements SecurityContext {
+
+        private final boolean secure;
+
+        LocalSecurityContext(boolean secure) {
+            this.secure = secure;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return false;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return secure;
+        }
+
+        @Override
+        public String getAuthenticationScheme() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+
+/**
+ * Transport dispatching requests to JAX-RS applications in the same process directly, see {@link LocalConnector}.
+ * Other requests are sent with the Jetty transport.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class LocalTransportProvider implements TransportProvider {
+
+    private final JettyTransportProvider networkTransport = new JettyTransportProvider();
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public void configure(ClientBuilder clientBuilder, TransportOptions options) {
+        networkTransport.configure(clientBuilder, options);
+
+        ClientConfig config = (ClientConfig) clientBuilder.getConfiguration();
+        ConnectorProvider networkProvider = (config.getConnectorProvider() instanceof JettyConnectorProvider) ?
+                config.getConnectorProvider() : new JettyConnectorProvider();
+
+        config.connectorProvider((client, runtimeConfig) -> new LocalConnector(networkProvider, client,
+                runtimeConfig));
+    }
+
+    @Override
+    public void afterBuild(Client client, TransportOptions options) {
+        networkTransport.afterBuild(client, options);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.jetty.connector.Jetty10Connector;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.CookieStore;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Jetty10Connector} using a shared Jetty {@link HttpClient}. Closing the connector releases the client instead
+ * of stopping it.
+ * <p>
+ * The cookie store of the shared client is disabled, cookies are stored per connector instead, so that rest clients
+ * sharing the Jetty client do not share cookies. Cookies set by responses to redirects followed by Jetty are not
+ * stored.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class SharedJettyConnector implements Connector {
+
+    private final Jetty10Connector delegate;
+    private final TransportRegistry.SharedTransport transport;
+    private final AtomicBoolean closed;
+    // null if cookies are disabled
+    private final CookieManager cookieManager;
+
+    SharedJettyConnector(Jetty10Connector delegate, TransportRegistry.SharedTransport transport,
+                         boolean cookiesEnabled) {
+        this.delegate = delegate;
+        this.transport = transport;
+        this.closed = new AtomicBoolean(false);
+        this.cookieManager = cookiesEnabled ? new CookieManager(null, CookiePolicy.ACCEPT_ORIGINAL_SERVER) : null;
+    }
+
+    public HttpClient getHttpClient() {
+        return delegate.getHttpClient();
+    }
+
+    /**
+     * Returns the cookie store of this connector, or null if cookies are disabled.
+     */
+    public CookieStore getCookieStore() {
+        return (cookieManager == null) ? null : cookieManager.getCookieStore();
+    }
+
+    @Override
+    public ClientResponse apply(ClientRequest request) {
+        addCookies(request);
+        ClientResponse response = delegate.apply(request);
+        storeCookies(request.getUri(), response);
+        return response;
+    }
+
+    @Override
+    public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+        addCookies(request);
+        return delegate.apply(request, new AsyncConnectorCallback() {
+            @Override
+            public void response(ClientResponse response) {
+                try {
+                    storeCookies(request.getUri(), response);
+                } catch (RuntimeException e) {
+                    callback.failure(e);
+                    return;
+                }
+                callback.response(response);
+            }
+
+            @Override
+            public void failure(Throwable failure) {
+                callback.failure(failure);
+            }
+        });
+    }
+
+    private void addCookies(ClientRequest request) {
+        if (cookieManager == null) {
+            return;
+        }
+
+        List<String> cookies;
+        try {
+            cookies = cookieManager.get(request.getUri(), Collections.emptyMap()).get(HttpHeaders.COOKIE);
+        } catch (IOException e) {
+            throw new ProcessingException(e);
+        }
+        if (cookies != null && !cookies.isEmpty()) {
+            request.getHeaders().add(HttpHeaders.COOKIE, String.join("; ", cookies));
+        }
+    }
+
+    private void storeCookies(URI uri, ClientResponse response) {
+        if (cookieManager == null) {
+            return;
+        }
+
+        List<String> setCookies = response.getHeaders().get(HttpHeaders.SET_COOKIE);
+        if (setCookies != null && !setCookies.isEmpty()) {
+            try {
+                cookieManager.put(uri, Collections.singletonMap(HttpHeaders.SET_COOKIE, setCookies));
+            } catch (IOException e) {
+                throw new ProcessingException(e);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            TransportRegistry.release(transport);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Effective configuration of a transport. Rest clients with equal keys share a single Jetty
+ * {@link org.eclipse.jetty.client.HttpClient}. SSL related objects (SSL context, key and trust stores and hostname
+ * verifier) are compared by identity, unless they are represented by a value (e.g. the configured location of a store).
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+final class TransportKey {
+
+    private final List<Object> sslIdentity;
+    private final Map<String, Object> connectorProperties;
+
+    TransportKey(List<Object> sslIdentity, Map<String, Object> connectorProperties) {
+        this.sslIdentity = sslIdentity;
+        this.connectorProperties = connectorProperties;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransportKey)) {
+            return false;
+        }
+        TransportKey that = (TransportKey) o;
+        return sslIdentityEquals(sslIdentity, that.sslIdentity) &&
+                connectorProperties.equals(that.connectorProperties);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = connectorProperties.hashCode();
+        for (Object identity : sslIdentity) {
+            hash = 31 * hash + identityHash(identity);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "TransportKey{connectorProperties=" + connectorProperties + "}";
+    }
+
+    private static boolean sslIdentityEquals(List<Object> a, List<Object> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            Object x = a.get(i);
+            Object y = b.get(i);
+            if (x instanceof String ? !x.equals(y) : x != y) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int identityHash(Object identity) {
+        return (identity instanceof String) ? identity.hashCode() : System.identityHashCode(identity);
+    }
+}
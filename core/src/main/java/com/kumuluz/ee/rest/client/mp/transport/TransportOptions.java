@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import javax.net.ssl.HostnameVerifier;
+import java.util.List;
+
+/**
+ * Configuration of a rest client passed to its {@link TransportProvider}.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class TransportOptions {
+
+    private final Class<?> apiClass;
+    private final HostnameVerifier hostnameVerifier;
+    private final boolean hostnameVerification;
+    private final List<Object> sslIdentity;
+
+    public TransportOptions(Class<?> apiClass, HostnameVerifier hostnameVerifier, boolean hostnameVerification,
+                            List<Object> sslIdentity) {
+        this.apiClass = apiClass;
+        this.hostnameVerifier = hostnameVerifier;
+        this.hostnameVerification = hostnameVerification;
+        this.sslIdentity = sslIdentity;
+    }
+
+    public Class<?> getApiClass() {
+        return apiClass;
+    }
+
+    /**
+     * Returns the hostname verifier set on the rest client or null if none is set.
+     */
+    public HostnameVerifier getHostnameVerifier() {
+        return hostnameVerifier;
+    }
+
+    /**
+     * Returns true if the hostname of the server should be verified.
+     */
+    public boolean isHostnameVerification() {
+        return hostnameVerification;
+    }
+
+    /**
+     * Returns the objects identifying the SSL configuration of the rest client (SSL context, key store, trust store
+     * and hostname verifier). Transports sharing connections between rest clients must only share them between
+     * clients with the same SSL configuration. Values are compared by identity unless they are strings.
+     */
+    public List<Object> getSslIdentity() {
+        return sslIdentity;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+/**
+ * Client properties configuring the protocol and the connection pool of the Jetty client. The properties are part of
+ * the transport configuration, so rest clients with different values do not share a Jetty client.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public final class TransportProperties {
+
+    /**
+     * Name of the {@link TransportProvider} used by the client, e.g. {@code jetty} or {@code jdk}. String value.
+     */
+    public static final String TRANSPORT_PROVIDER = "kumuluzee.rest-client.transport.provider";
+
+    /**
+     * Maximum number of connections opened to a single destination (scheme, host and port). Integer value.
+     */
+    public static final String MAX_CONNECTIONS_PER_DESTINATION =
+            "kumuluzee.rest-client.transport.maxConnectionsPerDestination";
+
+    /**
+     * Maximum number of requests waiting for a connection to a single destination. Requests over the limit fail
+     * immediately. Integer value.
+     */
+    public static final String MAX_REQUESTS_QUEUED_PER_DESTINATION =
+            "kumuluzee.rest-client.transport.maxRequestsQueuedPerDestination";
+
+    /**
+     * Time in milliseconds after which idle connections are closed. Long value.
+     */
+    public static final String IDLE_TIMEOUT = "kumuluzee.rest-client.transport.idleTimeout";
+
+    /**
+     * Time in milliseconds after which connections are closed once they are returned to the pool. Long value.
+     */
+    public static final String CONNECTION_MAX_LIFETIME = "kumuluzee.rest-client.transport.connectionMaxLifetime";
+
+    /**
+     * Protocol used by the client. String value, one of:
+     * <ul>
+     * <li>{@code http/1.1} - HTTP/1.1 only (default)</li>
+     * <li>{@code h2} - HTTP/2 negotiated with ALPN over TLS, falling back to HTTP/1.1 if the server does not support
+     * it. Cleartext requests use HTTP/1.1.</li>
+     * <li>{@code h2c} - same as {@code h2}, but cleartext requests use HTTP/2 with prior knowledge. The server must
+     * support HTTP/2 since there is no fallback for cleartext connections.</li>
+     * </ul>
+     */
+    public static final String PROTOCOL = "kumuluzee.rest-client.transport.protocol";
+
+    /**
+     * Maximum number of concurrent requests (streams) on a single HTTP/2 connection. The limit announced by the server
+     * is used if it is lower. Integer value.
+     */
+    public static final String MAX_CONCURRENT_STREAMS = "kumuluzee.rest-client.transport.maxConcurrentStreams";
+
+    static final String PREFIX = "kumuluzee.rest-client.transport.";
+
+    private TransportProperties() {
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+
+/**
+ * Transport used by rest clients to send requests. Implementations are loaded with {@link java.util.ServiceLoader}
+ * and selected by name, either per rest client with the {@code transport-provider} registration key or globally with
+ * the {@code kumuluzee.rest-client.transport.provider} key. The {@code jetty} transport is used by default.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public interface TransportProvider {
+
+    /**
+     * Name used to select the transport in the configuration.
+     */
+    String getName();
+
+    /**
+     * Configures the builder before the client is built, usually by setting the Jersey connector provider.
+     */
+    void configure(ClientBuilder clientBuilder, TransportOptions options);
+
+    /**
+     * Applies configuration which can only be set once the client is built.
+     */
+    default void afterBuild(Client client, TransportOptions options) {
+    }
+}
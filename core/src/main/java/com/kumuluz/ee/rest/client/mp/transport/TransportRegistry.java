@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import org.eclipse.jetty.client.HttpClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps track of the Jetty {@link HttpClient}s shared by rest clients with the same transport configuration. Clients
+ * are reference counted and stopped once the last rest client using them is closed.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class TransportRegistry {
+
+    private static final Logger LOG = Logger.getLogger(TransportRegistry.class.getSimpleName());
+
+    private static final Map<TransportKey, SharedTransport> TRANSPORTS = new HashMap<>();
+
+    private TransportRegistry() {
+    }
+
+    /**
+     * Returns the transport for the key and increments its reference count. A new transport is created if none
+     * exists.
+     */
+    static synchronized SharedTransport acquire(TransportKey key, Supplier<HttpClient> httpClientSupplier) {
+        SharedTransport transport = TRANSPORTS.get(key);
+        if (transport == null) {
+            transport = new SharedTransport(key, httpClientSupplier.get());
+            TRANSPORTS.put(key, transport);
+        }
+        transport.references++;
+        return transport;
+    }
+
+    /**
+     * Decrements the reference count of the transport and stops its client once it is no longer used.
+     */
+    static void release(SharedTransport transport) {
+        synchronized (TransportRegistry.class) {
+            if (--transport.references > 0) {
+                return;
+            }
+            TRANSPORTS.remove(transport.key, transport);
+        }
+
+        try {
+            transport.httpClient.stop();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Could not stop the HTTP client.", e);
+        }
+    }
+
+    /**
+     * Returns the number of transports currently in use.
+     */
+    public static synchronized int getTransportCount() {
+        return TRANSPORTS.size();
+    }
+
+    /**
+     * Jetty client shared by rest clients with equal {@link TransportKey}s.
+     */
+    static final class SharedTransport {
+
+        private final TransportKey key;
+        private final HttpClient httpClient;
+
+        // guarded by TransportRegistry.class
+        private int references;
+
+        // guarded by this
+        private boolean configured;
+
+        private SharedTransport(TransportKey key, HttpClient httpClient) {
+            this.key = key;
+            this.httpClient = httpClient;
+        }
+
+        HttpClient getHttpClient() {
+            return httpClient;
+        }
+
+        /**
+         * Returns true the first time it is called. Settings which accumulate on the client (proxies, authentication)
+         * must only be applied once.
+         */
+        synchronized boolean markConfigured() {
+            if (configured) {
+                return false;
+            }
+            configured = true;
+            return true;
+        }
+    }
+}
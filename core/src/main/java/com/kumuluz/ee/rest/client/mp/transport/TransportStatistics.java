@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.transport;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.util.component.LifeCycle;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registers the statistics of a Jetty client with the platform MBean server while the client is running. The MBeans
+ * are registered as {@code com.kumuluz.ee.rest.client:type=Transport,name=<client>} and can be disabled with the
+ * {@code kumuluzee.rest-client.transport.jmx} configuration key.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+class TransportStatistics implements TransportStatisticsMXBean, LifeCycle.Listener {
+
+    private static final Logger LOG = Logger.getLogger(TransportStatistics.class.getSimpleName());
+
+    private static final String CONFIG_KEY = "kumuluzee.rest-client.transport.jmx";
+
+    private final HttpClient httpClient;
+    private ObjectName objectName;
+
+    private TransportStatistics(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Registers the MBean when the client is started and unregisters it when the client is stopped. Must be called
+     * before the client is started.
+     */
+    static void register(HttpClient httpClient) {
+        if (ConfigurationUtil.getInstance().getBoolean(CONFIG_KEY).orElse(true)) {
+            httpClient.addEventListener(new TransportStatistics(httpClient));
+        }
+    }
+
+    @Override
+    public List<DestinationStatistics> getDestinations() {
+        return DestinationStatistics.of(httpClient);
+    }
+
+    @Override
+    public int getMaxConnectionsPerDestination() {
+        return httpClient.getMaxConnectionsPerDestination();
+    }
+
+    @Override
+    public int getMaxRequestsQueuedPerDestination() {
+        return httpClient.getMaxRequestsQueuedPerDestination();
+    }
+
+    @Override
+    public synchronized void lifeCycleStarted(LifeCycle event) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            objectName = new ObjectName("com.kumuluz.ee.rest.client:type=Transport,name=" +
+                    ObjectName.quote(httpClient.getName()));
+            server.registerMBean(this, objectName);
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Could not register transport statistics for " + httpClient.getName(), e);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public synchronized void lifeCycleStopped(LifeCycle event) {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception e) {
+                LOG.log(Level.FINE, "Could not unregister transport statistics for " + httpClient.getName(), e);
+            }
+            objectName = null;
+        }
+    }
+}
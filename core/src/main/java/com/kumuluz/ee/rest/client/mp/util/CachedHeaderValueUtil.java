@@ -0,0 +1,53 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.util;
+
+import com.kumuluz.ee.rest.client.mp.annotations.CachedHeaderValue;
+import com.kumuluz.ee.rest.client.mp.invoker.CachedHeaderValueHolder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of cached header values, shared by all rest client instances.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class CachedHeaderValueUtil {
+
+    private static final ConcurrentMap<Object, CachedHeaderValueHolder<?>> HOLDERS = new ConcurrentHashMap<>();
+
+    private CachedHeaderValueUtil() {
+    }
+
+    /**
+     * Returns the holder of the cached value for the given key.
+     *
+     * @param key    identifies the source of the value, e.g. the generator method and the header name
+     * @param config cache configuration
+     * @return holder of the cached value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CachedHeaderValueHolder<T> getHolder(Object key, CachedHeaderValue config) {
+        return (CachedHeaderValueHolder<T>) HOLDERS.computeIfAbsent(key, k -> new CachedHeaderValueHolder<>(config));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.util;
+
+import com.kumuluz.ee.rest.client.mp.invoker.ClientHeaderParamTemplate;
+import com.kumuluz.ee.rest.client.mp.invoker.HeaderGenerator;
+import org.eclipse.microprofile.rest.client.RestClientDefinitionException;
+import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Utility methods for processing and validating {@link ClientHeaderParam} annotations.
+ *
+ * @author Urban Malc
+ * @since 1.2.0
+ */
+public class ClientHeaderParamUtil {
+
+    /**
+     * Merges the {@link ClientHeaderParam} annotations of the method and its interface into a template. Method
+     * annotations take precedence over the interface annotations with the same name.
+     *
+     * @param method rest client method
+     * @return template of the headers
+     */
+    public static ClientHeaderParamTemplate compileClientHeaderParams(Method method) {
+        Map<String, ClientHeaderParam> clientHeaderParams = new LinkedHashMap<>();
+        for (ClientHeaderParam clientHeaderParam : method.getDeclaringClass().getAnnotationsByType(ClientHeaderParam.class)) {
+            clientHeaderParams.put(clientHeaderParam.name(), clientHeaderParam);
+        }
+        for (ClientHeaderParam clientHeaderParam : method.getAnnotationsByType(ClientHeaderParam.class)) {
+            clientHeaderParams.put(clientHeaderParam.name(), clientHeaderParam);
+        }
+
+        if (clientHeaderParams.isEmpty()) {
+            return ClientHeaderParamTemplate.empty();
+        }
+
+        Map<String, List<String>> constantHeaders = new LinkedHashMap<>();
+        List<HeaderGenerator> generators = new ArrayList<>();
+        for (ClientHeaderParam clientHeaderParam : clientHeaderParams.values()) {
+            if (clientHeaderParam.value().length == 1 && isMethodCall(clientHeaderParam.value()[0])) {
+                Method generatorMethod;
+                try {
+                    generatorMethod = findReferencedMethod(clientHeaderParam.value()[0], method);
+                } catch (ClassNotFoundException e) {
+                    generatorMethod = null;
+                }
+
+                if (generatorMethod == null) {
+                    throw new RestClientDefinitionException(getHumanFriendlyDescriptor(method) +
+                            " Could not find method reference " + clientHeaderParam.value()[0]);
+                }
+
+                generators.add(new HeaderGenerator(clientHeaderParam.name(), clientHeaderParam.required(),
+                        generatorMethod));
+            } else {
+                constantHeaders.put(clientHeaderParam.name(), Arrays.asList(clientHeaderParam.value()));
+            }
+        }
+
+        return new ClientHeaderParamTemplate(constantHeaders, generators);
+    }
+
+    /**
+     * Finds the method referenced in {@link ClientHeaderParam} value. Method reference can either be the name of a
+     * default method of the interface or the fully qualified name of a static method.
+     */
+    private static Method findReferencedMethod(String methodReference, Method method) throws ClassNotFoundException {
+        String invocationName = methodReference.substring(1, methodReference.length() - 1);
+        int separatorIdx = invocationName.lastIndexOf(".");
+
+        Class<?> invocationClass = method.getDeclaringClass();
+        String invocationMethod = invocationName;
+        if (separatorIdx >= 0) {
+            invocationClass = Class.forName(invocationName.substring(0, separatorIdx));
+            invocationMethod = invocationName.substring(separatorIdx + 1);
+        }
+
+        Method matchingMethod = null;
+        for (Method m : invocationClass.getMethods()) {
+            if (m.getName().equals(invocationMethod)) {
+                if (m.getParameterCount() == 0) {
+                    matchingMethod = m;
+                } else if (m.getParameterCount() == 1) {
+                    if (m.getParameterTypes()[0].isAssignableFrom(String.class)) {
+                        matchingMethod = m;
+                    }
+                }
+            }
+        }
+
+        return matchingMethod;
+    }
+
+    private static boolean isMethodCall(String value) {
+        return value.startsWith("{") && value.endsWith("}");
+    }
+
+    public static void validateClientHeaderParams(Method method) {
+        Set<String> definedNames = new HashSet<>();
+        for (ClientHeaderParam clientHeaderParam : method.getDeclaringClass().getAnnotationsByType(ClientHeaderParam.class)) {
+            if (definedNames.contains(clientHeaderParam.name())) {
+                throw new RestClientDefinitionException(getHumanFriendlyDescriptor(method) +
+                        " Interface class defines multiple ClientHeaderParams with the name " +
+                        clientHeaderParam.name());
+            } else {
+                definedNames.add(clientHeaderParam.name());
+            }
+            validateClientHeaderParam(clientHeaderParam, method);
+        }
+        definedNames.clear();
+        for (ClientHeaderParam clientHeaderParam : method.getAnnotationsByType(ClientHeaderParam.class)) {
+            if (definedNames.contains(clientHeaderParam.name())) {
+                throw new RestClientDefinitionException(getHumanFriendlyDescriptor(method) +
+                        " Method defines multiple ClientHeaderParams with the name " +
+                        clientHeaderParam.name());
+            } else {
+                definedNames.add(clientHeaderParam.name());
+            }
+            validateClientHeaderParam(clientHeaderParam, method);
+        }
+    }
+
+    private static void validateClientHeaderParam(ClientHeaderParam clientHeaderParam, Method method) {
+        long methodCalls = Arrays.stream(clientHeaderParam.value()).filter(ClientHeaderParamUtil::isMethodCall).count();
+        if (methodCalls >= 1 && clientHeaderParam.value().length > 1) {
+            throw new RestClientDefinitionException(getHumanFriendlyDescriptor(method) +
+                    " Additional values defined alongside method reference in single ClientHeaderParam");
+        }
+
+        Arrays.stream(clientHeaderParam.value()).filter(ClientHeaderParamUtil::isMethodCall).forEach(ref -> {
+            Method matchingMethod;
+            try {
+                matchingMethod = findReferencedMethod(ref, method);
+            } catch (ClassNotFoundException e) {
+                String invocationName = ref.substring(1, ref.length() - 1);
+                throw new RestClientDefinitionException(getHumanFriendlyDescriptor(method) +
+                        " Could not resolve class declared in method reference: " +
+                        invocationName.substring(0, invocationName.lastIndexOf(".")));
+            }
+
+            if (matchingMethod == null) {
+                throw new RestClientDefinitionException(getHumanFriendlyDescriptor(method) +
+                        " Could not find method reference. Make sure it has either zero parameters or one parameter " +
+                        "of type String.");
+            }
+
+            if (!matchingMethod.getReturnType().isAssignableFrom(String.class) &&
+                    !matchingMethod.getReturnType().isAssignableFrom(String[].class)) {
+                throw new RestClientDefinitionException(getHumanFriendlyDescriptor(method) +
+                        " Method reference should return either String or String[].");
+            }
+        });
+    }
+
+    private static String getHumanFriendlyDescriptor(Method method) {
+        return String.format("[Method: %s; Class: %s]", method.getName(), method.getDeclaringClass().getName());
+    }
+}
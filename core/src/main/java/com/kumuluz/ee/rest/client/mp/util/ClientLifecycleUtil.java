@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.util;
+
+import javax.ws.rs.client.Client;
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps track of the clients created for rest client instances which have not been closed yet. Clients of rest client
+ * beans are closed when the bean is destroyed, the remaining clients are closed when the CDI container shuts down.
+ * <p>
+ * Rest client instances are not retained, a client is also closed once the rest client instance owning it becomes
+ * unreachable.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class ClientLifecycleUtil {
+
+    private static final Logger LOG = Logger.getLogger(ClientLifecycleUtil.class.getSimpleName());
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static final Map<Client, Cleaner.Cleanable> OPEN_CLIENTS = new ConcurrentHashMap<>();
+
+    private ClientLifecycleUtil() {
+    }
+
+    /**
+     * Tracks the client until it is closed or the owner becomes unreachable.
+     *
+     * @param owner  object using the client, must not be reachable from the client
+     * @param client client to track
+     */
+    public static void track(Object owner, Client client) {
+        OPEN_CLIENTS.put(client, CLEANER.register(owner, new CloseAction(client)));
+    }
+
+    /**
+     * Closes the client and stops tracking it.
+     */
+    public static void close(Client client) {
+        Cleaner.Cleanable cleanable = OPEN_CLIENTS.remove(client);
+        if (cleanable != null) {
+            cleanable.clean();
+        } else {
+            client.close();
+        }
+    }
+
+    /**
+     * Returns clients which have not been closed yet.
+     */
+    public static List<Client> getOpenClients() {
+        return Collections.unmodifiableList(new ArrayList<>(OPEN_CLIENTS.keySet()));
+    }
+
+    /**
+     * Closes all clients which have not been closed yet.
+     */
+    public static void closeAll() {
+        for (Client client : getOpenClients()) {
+            try {
+                close(client);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Could not close rest client.", e);
+            }
+        }
+    }
+
+    // must not reference the owner, otherwise the owner never becomes unreachable
+    private static class CloseAction implements Runnable {
+
+        private final Client client;
+
+        CloseAction(Client client) {
+            this.client = client;
+        }
+
+        @Override
+        public void run() {
+            OPEN_CLIENTS.remove(client);
+            try {
+                client.close();
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Could not close rest client.", e);
+            }
+        }
+    }
+}
@@ -26,7 +26,8 @@ import javax.ws.rs.core.Feature;
 import java.util.*;
 
 /**
- * Allows extending existing {@link Configuration} with custom providers.
+ * Allows extending existing {@link Configuration} with custom providers. Properties of the existing configuration can be
+ * hidden.
  *
  * @author Urban Malc
  * @since 1.0.1
@@ -37,14 +38,23 @@ public class ExtendedConfiguration implements Configuration {
 
     private Set<Object> instances;
     private Map<Class, Map<Class<?>, Integer>> contracts;
+    private Set<String> hiddenProperties;
 
     public ExtendedConfiguration(Configuration delegate,
                                  Set<Object> instances,
                                  Map<Class, Map<Class<?>, Integer>> contracts) {
+        this(delegate, instances, contracts, Collections.emptySet());
+    }
+
+    public ExtendedConfiguration(Configuration delegate,
+                                 Set<Object> instances,
+                                 Map<Class, Map<Class<?>, Integer>> contracts,
+                                 Set<String> hiddenProperties) {
 
         this.delegate = delegate;
         this.instances = instances;
         this.contracts = contracts;
+        this.hiddenProperties = hiddenProperties;
     }
 
     @Override
@@ -54,17 +64,29 @@ public class ExtendedConfiguration implements Configuration {
 
     @Override
     public Map<String, Object> getProperties() {
-        return delegate.getProperties();
+        if (hiddenProperties.isEmpty()) {
+            return delegate.getProperties();
+        }
+
+        Map<String, Object> properties = new HashMap<>(delegate.getProperties());
+        properties.keySet().removeAll(hiddenProperties);
+        return properties;
     }
 
     @Override
     public Object getProperty(String s) {
-        return delegate.getProperty(s);
+        return hiddenProperties.contains(s) ? null : delegate.getProperty(s);
     }
 
     @Override
     public Collection<String> getPropertyNames() {
-        return delegate.getPropertyNames();
+        if (hiddenProperties.isEmpty()) {
+            return delegate.getPropertyNames();
+        }
+
+        List<String> propertyNames = new ArrayList<>(delegate.getPropertyNames());
+        propertyNames.removeAll(hiddenProperties);
+        return propertyNames;
     }
 
     @Override
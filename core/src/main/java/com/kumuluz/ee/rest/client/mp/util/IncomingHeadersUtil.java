@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.util;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import org.eclipse.microprofile.rest.client.ext.DefaultClientHeadersFactoryImpl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Determines whether headers of incoming requests need to be captured for propagation by rest clients.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class IncomingHeadersUtil {
+
+    private static volatile boolean clientHeadersFactoryUsed = false;
+
+    private IncomingHeadersUtil() {
+    }
+
+    /**
+     * Marks that a rest client uses a {@link org.eclipse.microprofile.rest.client.ext.ClientHeadersFactory}. Called
+     * for rest clients discovered by the CDI extension and for every rest client when it is created.
+     */
+    public static void markClientHeadersFactoryUsed() {
+        clientHeadersFactoryUsed = true;
+    }
+
+    public static boolean isClientHeadersFactoryUsed() {
+        return clientHeadersFactoryUsed;
+    }
+
+    /**
+     * Returns true if capture is explicitly disabled with <code>kumuluzee.rest-client.capture-incoming-headers</code>.
+     */
+    public static boolean isCaptureDisabled() {
+        return !ConfigurationUtil.getInstance().getBoolean("kumuluzee.rest-client.capture-incoming-headers")
+                .orElse(true);
+    }
+
+    /**
+     * Incoming headers are captured if enabled with <code>kumuluzee.rest-client.capture-incoming-headers</code>.
+     * If the key is not set, headers are captured when header propagation is configured or when a rest client
+     * uses {@link org.eclipse.microprofile.rest.client.annotation.RegisterClientHeaders}. Rest clients created after
+     * the application has started enable capture for subsequent requests.
+     */
+    public static boolean isCaptureEnabled() {
+        Optional<Boolean> captureEnabled = ConfigurationUtil.getInstance()
+                .getBoolean("kumuluzee.rest-client.capture-incoming-headers");
+
+        return captureEnabled.orElseGet(() -> clientHeadersFactoryUsed || !getPropagatedHeaderNames().isEmpty());
+    }
+
+    public static List<String> getPropagatedHeaderNames() {
+        Optional<String> propagateHeaders = ConfigurationUtil.getInstance()
+                .get(DefaultClientHeadersFactoryImpl.PROPAGATE_PROPERTY);
+
+        if (!propagateHeaders.isPresent() || propagateHeaders.get().trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(propagateHeaders.get().split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
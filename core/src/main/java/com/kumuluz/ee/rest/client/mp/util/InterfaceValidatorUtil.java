@@ -22,11 +22,14 @@ package com.kumuluz.ee.rest.client.mp.util;
 
 import org.eclipse.microprofile.rest.client.RestClientDefinitionException;
 
+import javax.ws.rs.BeanParam;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -83,12 +86,11 @@ public class InterfaceValidatorUtil {
                 methodsVariables.addAll(getPathParamList(methodPathAnnotation.value()));
             }
             // add method parameter variables
-            for (Annotation[] annotations : method.getParameterAnnotations()) {
-                for (Annotation annotation : annotations) {
-                    if (PathParam.class.equals(annotation.annotationType())) {
-                        methodParameterVariables.add(((PathParam) annotation).value());
-                    }
-                }
+            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                collectPathParams(parameterAnnotations[i], parameterTypes[i], methodParameterVariables,
+                        new HashSet<>());
             }
         }
 
@@ -108,6 +110,38 @@ public class InterfaceValidatorUtil {
         }
     }
 
+    /**
+     * Collects the path parameter bound by an annotated parameter or bean member. Members of {@link BeanParam} types,
+     * including nested bean parameters, are collected the same way as they are bound by
+     * {@link com.kumuluz.ee.rest.client.mp.invoker.BeanParamBinder}.
+     */
+    private static void collectPathParams(Annotation[] annotations, Class<?> type, Set<String> pathParams,
+                                          Set<Class<?>> visitedBeans) {
+        for (Annotation annotation : annotations) {
+            if (PathParam.class.equals(annotation.annotationType())) {
+                pathParams.add(((PathParam) annotation).value());
+                return;
+            }
+            if (BeanParam.class.equals(annotation.annotationType())) {
+                for (Class<?> c = type; c != null && c != Object.class && visitedBeans.add(c); c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers())) {
+                            collectPathParams(field.getAnnotations(), field.getType(), pathParams, visitedBeans);
+                        }
+                    }
+                    for (Method getter : c.getDeclaredMethods()) {
+                        if (!Modifier.isStatic(getter.getModifiers()) && getter.getParameterCount() == 0 &&
+                                !void.class.equals(getter.getReturnType()) && !getter.isBridge()) {
+                            collectPathParams(getter.getAnnotations(), getter.getReturnType(), pathParams,
+                                    visitedBeans);
+                        }
+                    }
+                }
+                return;
+            }
+        }
+    }
+
     private static void checkForMultipleHttpMethods(Method[] methods) {
         for (Method method : methods) {
             boolean alreadyHasHTTPMethod = false;
@@ -127,9 +161,21 @@ public class InterfaceValidatorUtil {
         }
     }
 
+    /**
+     * Returns a matcher over the path parameter templates in the given path value. Group 1 of each match contains
+     * the parameter name. Match indices correspond to the indices in the given string.
+     *
+     * @param string path value, as declared in the {@link Path} annotation
+     * @return matcher over the path parameter templates
+     */
+    public static Matcher getPathParamMatcher(String string) {
+        // nested braces are replaced with characters of the same length, indices remain valid
+        return URL_PARAM_PATTERN.matcher(replaceCurlyBraces(string));
+    }
+
     private static List<String> getPathParamList(String string) {
         List<String> params = new ArrayList<>();
-        Matcher matcher = URL_PARAM_PATTERN.matcher(replaceCurlyBraces(string));
+        Matcher matcher = getPathParamMatcher(string);
         while (matcher.find()) {
             String param = matcher.group(1);
             params.add(param);
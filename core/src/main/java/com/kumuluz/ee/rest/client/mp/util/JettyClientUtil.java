@@ -0,0 +1,123 @@
+package com.kumuluz.ee.rest.client.mp.util;
+
+import com.kumuluz.ee.rest.client.mp.transport.LocalConnector;
+import com.kumuluz.ee.rest.client.mp.transport.SharedJettyConnector;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.io.ArrayRetainableByteBufferPool;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.eclipse.jetty.io.MappedByteBufferPool;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+import org.eclipse.jetty.util.thread.Scheduler;
+import org.glassfish.jersey.client.Initializable;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.jetty.connector.Jetty10Connector;
+import org.glassfish.jersey.jetty.connector.LocalizationMessages;
+
+import javax.ws.rs.core.Configurable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JettyClientUtil {
+
+    private static final Logger LOG = Logger.getLogger(JettyClientUtil.class.getSimpleName());
+
+    private static SharedResources sharedResources;
+
+    public static HttpClient getHttpClient(Configurable<?> component) {
+
+        if (!(component instanceof Initializable)) {
+            throw new IllegalArgumentException(
+                    LocalizationMessages.INVALID_CONFIGURABLE_COMPONENT_TYPE(component.getClass().getName()));
+        }
+
+        final Initializable<?> initializable = (Initializable<?>) component;
+        Connector connector = initializable.getConfiguration().getConnector();
+        if (connector == null) {
+            initializable.preInitialize();
+            connector = initializable.getConfiguration().getConnector();
+        }
+
+        if (connector instanceof LocalConnector) {
+            connector = ((LocalConnector) connector).getDelegate();
+        }
+        if (connector instanceof SharedJettyConnector) {
+            return ((SharedJettyConnector) connector).getHttpClient();
+        }
+        if (connector instanceof Jetty10Connector) {
+            return ((Jetty10Connector) connector).getHttpClient();
+        }
+
+        throw new IllegalArgumentException(LocalizationMessages.EXPECTED_CONNECTOR_PROVIDER_NOT_USED());
+    }
+
+    /**
+     * Configures the client to use the process-wide thread pool, scheduler and buffer pools instead of creating its
+     * own. Must be called before the client is started. The shared components are already running when they are added
+     * to the client, so they are not stopped together with it.
+     */
+    public static void useSharedResources(HttpClient httpClient) {
+        SharedResources resources = getSharedResources();
+
+        httpClient.setExecutor(resources.threadPool);
+        httpClient.setScheduler(resources.scheduler);
+        httpClient.setByteBufferPool(resources.byteBufferPool);
+        httpClient.addBean(resources.retainableByteBufferPool);
+    }
+
+    private static synchronized SharedResources getSharedResources() {
+        if (sharedResources == null) {
+            sharedResources = new SharedResources();
+        }
+        return sharedResources;
+    }
+
+    /**
+     * Stops the shared thread pool and scheduler. Clients using them should be closed before.
+     */
+    public static synchronized void stopSharedResources() {
+        if (sharedResources != null) {
+            stop(sharedResources.scheduler);
+            stop(sharedResources.threadPool);
+            sharedResources = null;
+        }
+    }
+
+    private static void stop(LifeCycle lifeCycle) {
+        try {
+            lifeCycle.stop();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Could not stop shared rest client resource " + lifeCycle, e);
+        }
+    }
+
+    private static class SharedResources {
+
+        private final QueuedThreadPool threadPool;
+        private final Scheduler scheduler;
+        private final ByteBufferPool byteBufferPool;
+        private final ArrayRetainableByteBufferPool retainableByteBufferPool;
+
+        private SharedResources() {
+            threadPool = new QueuedThreadPool();
+            threadPool.setName("kumuluzee-rest-client");
+            threadPool.setDaemon(true);
+            scheduler = new ScheduledExecutorScheduler("kumuluzee-rest-client-scheduler", true);
+
+            // same sizing as the defaults of HttpClient
+            int maxBucketSize = threadPool.getMaxThreads() / 2;
+            byteBufferPool = new MappedByteBufferPool(2048, maxBucketSize);
+            retainableByteBufferPool = new ArrayRetainableByteBufferPool(0, 2048, 65536, maxBucketSize);
+
+            try {
+                threadPool.start();
+                scheduler.start();
+            } catch (Exception e) {
+                stop(scheduler);
+                stop(threadPool);
+                throw new IllegalStateException("Could not start shared rest client resources", e);
+            }
+        }
+    }
+}
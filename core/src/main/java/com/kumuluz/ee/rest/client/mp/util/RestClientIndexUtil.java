@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Reads the index of rest client interfaces written at compile time by
+ * {@code com.kumuluz.ee.rest.client.mp.processor.RestClientProcessor}. Interfaces in the index have already been
+ * validated by the processor.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class RestClientIndexUtil {
+
+    private static final Logger LOG = Logger.getLogger(RestClientIndexUtil.class.getSimpleName());
+
+    public static final String INDEX_RESOURCE = "META-INF/kumuluzee/rest-client/registrations";
+
+    private static Set<String> indexedClients = null;
+
+    private RestClientIndexUtil() {
+    }
+
+    /**
+     * Returns the binary names of the indexed rest client interfaces from all index resources on the class path.
+     */
+    public static synchronized Set<String> getIndexedClients() {
+        if (indexedClients == null) {
+            indexedClients = Collections.unmodifiableSet(readIndex(getClassLoader()));
+        }
+
+        return indexedClients;
+    }
+
+    /**
+     * Returns true, if the rest client interface was indexed (and validated) at compile time.
+     */
+    public static boolean isIndexed(Class<?> apiClass) {
+        return getIndexedClients().contains(apiClass.getName());
+    }
+
+    /**
+     * Loads the indexed rest client interfaces. Interfaces that cannot be loaded are skipped.
+     */
+    public static Set<Class<?>> loadIndexedClients() {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        ClassLoader classLoader = getClassLoader();
+
+        for (String className : getIndexedClients()) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                LOG.warning("Could not load indexed rest client " + className + ": " + e.getMessage());
+            }
+        }
+
+        return classes;
+    }
+
+    private static Set<String> readIndex(ClassLoader classLoader) {
+        Set<String> classNames = new LinkedHashSet<>();
+
+        try {
+            Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(),
+                        StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            classNames.add(line);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.warning("Could not read rest client index: " + e.getMessage());
+        }
+
+        return classNames;
+    }
+
+    private static ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return (classLoader != null) ? classLoader : RestClientIndexUtil.class.getClassLoader();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.util;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Support for running rest client invocations on virtual threads. Virtual threads are available since Java 21, so the
+ * required APIs are detected and invoked reflectively. Only the executors created by the rest client use virtual
+ * threads, the thread pool of the Jetty client is not affected since Jetty 10 does not support virtual threads.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+public class VirtualThreadsUtil {
+
+    private static final Logger LOG = Logger.getLogger(VirtualThreadsUtil.class.getSimpleName());
+
+    private static final String CONFIG_KEY = "kumuluzee.rest-client.virtual-threads";
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+
+    private static Boolean enabled = null;
+
+    private VirtualThreadsUtil() {
+    }
+
+    /**
+     * Returns true if virtual threads are enabled in the configuration and supported by the runtime.
+     */
+    public static synchronized boolean isEnabled() {
+        if (enabled == null) {
+            boolean configured = ConfigurationUtil.getInstance().getBoolean(CONFIG_KEY).orElse(false);
+
+            if (configured && !isSupported()) {
+                LOG.warning("Virtual threads are enabled with " + CONFIG_KEY + " but are not supported by the " +
+                        "current Java runtime. Platform threads will be used instead.");
+            }
+
+            enabled = configured && isSupported();
+        }
+
+        return enabled;
+    }
+
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads are not supported by the current Java runtime.");
+        }
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create virtual thread executor.", e);
+        }
+    }
+
+    private static Method findNewVirtualThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.kumuluz.ee.rest.client.mp.benchmarks;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationImpl;
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.rest.client.mp.transport.JettyConnectorProvider;
+import com.kumuluz.ee.rest.client.mp.transport.TransportProperties;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.ConnectionStatistics;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.glassfish.jersey.client.ClientConfig;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.InvocationCallback;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares HTTP/1.1 and HTTP/2 (h2c) transports against a local Jetty server accepting both protocols. Every round
+ * sends a burst of concurrent asynchronous requests and reports the peak number of connections opened by the client and the
+ * request latency percentiles.
+ * <p>
+ * Not part of the test suite, run the main method with the test classpath. Arguments: number of concurrent requests
+ * (1000 by default), number of rounds (5 by default), server delay in milliseconds (10 by default) and maximum concurrent
+ * streams per HTTP/2 connection (128 by default).
+ */
+public class Http2Benchmark {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long delay = args.length > 2 ? Long.parseLong(args[2]) : 10;
+        int maxStreams = args.length > 3 ? Integer.parseInt(args[3]) : 128;
+
+        ConfigurationUtil.initialize(new ConfigurationImpl());
+
+        for (String protocol : Arrays.asList("http/1.1", "h2c")) {
+            Server server = startServer(delay);
+            ServerConnector connector = (ServerConnector) server.getConnectors()[0];
+            ConnectionStatistics statistics = connector.getBean(ConnectionStatistics.class);
+            int port = connector.getLocalPort();
+
+            ClientConfig config = new ClientConfig()
+                    .connectorProvider(new JettyConnectorProvider(false, Collections.emptyList()))
+                    .property(TransportProperties.PROTOCOL, protocol)
+                    .property(TransportProperties.MAX_REQUESTS_QUEUED_PER_DESTINATION, concurrency)
+                    .property(TransportProperties.MAX_CONCURRENT_STREAMS, maxStreams);
+            Client client = ClientBuilder.newClient(config);
+
+            try {
+                // warm up
+                runRound(client, port, concurrency);
+
+                long[] latencies = new long[0];
+                for (int i = 0; i < rounds; i++) {
+                    long[] round = runRound(client, port, concurrency);
+                    long[] merged = Arrays.copyOf(latencies, latencies.length + round.length);
+                    System.arraycopy(round, 0, merged, latencies.length, round.length);
+                    latencies = merged;
+                }
+                Arrays.sort(latencies);
+
+                // peak of open connections, the total also counts connections upgraded to h2c on the server
+                System.out.printf("%-8s connections=%d p50=%.1fms p99=%.1fms max=%.1fms%n", protocol,
+                        statistics.getConnectionsMax(), percentile(latencies, 0.50), percentile(latencies, 0.99),
+                        latencies[latencies.length - 1] / 1e6);
+            } finally {
+                client.close();
+                server.stop();
+            }
+        }
+    }
+
+    private static long[] runRound(Client client, int port, int concurrency) throws InterruptedException {
+        long[] latencies = new long[concurrency];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            int index = i;
+            long start = System.nanoTime();
+            client.target("http://localhost:" + port + "/").request().async().get(new InvocationCallback<String>() {
+                @Override
+                public void completed(String response) {
+                    latencies[index] = System.nanoTime() - start;
+                    latch.countDown();
+                }
+
+                @Override
+                public void failed(Throwable throwable) {
+                    latencies[index] = System.nanoTime() - start;
+                    failures.incrementAndGet();
+                    latch.countDown();
+                }
+            });
+        }
+
+        if (!latch.await(2, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Round did not complete in time");
+        }
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " requests failed");
+        }
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static Server startServer(long delay) throws Exception {
+        QueuedThreadPool threadPool = new QueuedThreadPool(1200);
+        threadPool.setName("benchmark-server");
+        Server server = new Server(threadPool);
+
+        HttpConfiguration httpConfiguration = new HttpConfiguration();
+        ServerConnector connector = new ServerConnector(server, new HttpConnectionFactory(httpConfiguration),
+                new HTTP2CServerConnectionFactory(httpConfiguration));
+        connector.setAcceptQueueSize(1024);
+        connector.addBean(new ConnectionStatistics());
+        server.addConnector(connector);
+
+        server.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setContentType("text/plain");
+                response.getWriter().write("ok");
+                baseRequest.setHandled(true);
+            }
+        });
+
+        server.start();
+        return server;
+    }
+}
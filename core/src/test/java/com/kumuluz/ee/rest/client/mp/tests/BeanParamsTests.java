@@ -0,0 +1,86 @@
+package com.kumuluz.ee.rest.client.mp.tests;
+
+import com.kumuluz.ee.rest.client.mp.integrations.KeeRestParameters;
+import com.kumuluz.ee.rest.client.mp.tests.interfaces.BeanParamsClient;
+import com.kumuluz.ee.rest.client.mp.tests.interfaces.MissingBeanPathParamClient;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.eclipse.microprofile.rest.client.RestClientDefinitionException;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+
+import static org.testng.Assert.*;
+
+/**
+ * Members of bean parameters, including nested bean parameters, are bound to the request and their path parameters
+ * are taken into account by the interface validation.
+ */
+@Test
+public class BeanParamsTests extends Arquillian {
+
+    @Deployment
+    public static JavaArchive createDeployment() {
+        return ShrinkWrap.create(JavaArchive.class, BeanParamsTests.class.getSimpleName() + ".jar")
+            .addClasses(BeanParamsClient.class, BeanParamsClient.ItemParams.class, BeanParamsClient.ItemId.class,
+                MissingBeanPathParamClient.class, MissingBeanPathParamClient.TenantParams.class,
+                EchoRequestFilter.class)
+            .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+    }
+
+    @Test
+    public void testBeanParamMembers() {
+        BeanParamsClient client = RestClientBuilder.newBuilder()
+            .baseUri(URI.create("http://localhost:8080/null"))
+            .register(EchoRequestFilter.class)
+            .build(BeanParamsClient.class);
+
+        KeeRestParameters parameters = new KeeRestParameters.KeeRestParametersBuilder()
+            .setOffset(10)
+            .setLimit(5)
+            .build();
+
+        try (Response r = client.update(new BeanParamsClient.ItemParams("acme", "trace-1", "session-1", "item", 42),
+            parameters)) {
+            URI uri = URI.create(r.getHeaderString("Sent-Uri"));
+            assertEquals(uri.getPath(), "/null/tenants/acme/items/42");
+            assertTrue(uri.getQuery().contains("offset=10"), uri.getQuery());
+            assertTrue(uri.getQuery().contains("limit=5"), uri.getQuery());
+            assertEquals(r.getHeaderString("Sent-Trace"), "trace-1");
+            assertEquals(r.getHeaderString("Sent-Session"), "session-1");
+            assertEquals(r.getHeaderString("Sent-Name"), "item");
+        }
+    }
+
+    @Test
+    public void testMissingPathParamInBeanParam() {
+        assertThrows(RestClientDefinitionException.class, () -> RestClientBuilder.newBuilder()
+            .baseUri(URI.create("http://localhost:8080/null"))
+            .build(MissingBeanPathParamClient.class));
+    }
+
+    public static class EchoRequestFilter implements ClientRequestFilter {
+
+        @Override
+        public void filter(ClientRequestContext requestContext) {
+            Response.ResponseBuilder response = Response.ok()
+                .header("Sent-Uri", requestContext.getUri())
+                .header("Sent-Trace", requestContext.getHeaderString("X-Trace"));
+            if (requestContext.getCookies().containsKey("session")) {
+                response.header("Sent-Session", requestContext.getCookies().get("session").getValue());
+            }
+            if (requestContext.getEntity() instanceof Form) {
+                response.header("Sent-Name", ((Form) requestContext.getEntity()).asMap().getFirst("name"));
+            }
+            requestContext.abortWith(response.build());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.kumuluz.ee.rest.client.mp.tests;
+
+import com.kumuluz.ee.rest.client.mp.tests.interfaces.LifecycleClient;
+import com.kumuluz.ee.rest.client.mp.util.ClientLifecycleUtil;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.eclipse.microprofile.rest.client.tck.providers.ProducesConsumesFilter;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.testng.annotations.Test;
+
+import javax.enterprise.context.control.RequestContextController;
+import javax.enterprise.inject.spi.CDI;
+import javax.ws.rs.core.Response;
+import java.io.Closeable;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Checks that clients created for rest client instances are released, so that repeated injections do not leave Jetty
+ * HttpClients (with their threads and connection pools) running.
+ */
+@Test
+public class ClientLifecycleTests extends Arquillian {
+
+    private static final int REQUESTS = 50;
+
+    @Deployment
+    public static JavaArchive createDeployment() {
+        return ShrinkWrap.create(JavaArchive.class, ClientLifecycleTests.class.getSimpleName() + ".jar")
+            .addClasses(LifecycleClient.class, ProducesConsumesFilter.class)
+            .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+    }
+
+    @Test
+    public void testRequestScopedClientsAreClosed() throws Exception {
+        long before = countLiveHttpClients();
+        int openBefore = ClientLifecycleUtil.getOpenClients().size();
+
+        // request context is activated on a separate thread, so each iteration gets a new bean instance
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                RequestContextController requestContextController = CDI.current()
+                    .select(RequestContextController.class).get();
+                for (int i = 0; i < REQUESTS; i++) {
+                    assertTrue(requestContextController.activate());
+                    try (Response r = CDI.current().select(LifecycleClient.class, RestClient.LITERAL).get().get()) {
+                        assertEquals(r.getStatus(), 200);
+                    } finally {
+                        requestContextController.deactivate();
+                    }
+                }
+                return null;
+            }).get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertLiveHttpClients(before);
+        assertEquals(ClientLifecycleUtil.getOpenClients().size(), openBefore);
+    }
+
+    @Test
+    public void testProgrammaticClientIsClosed() throws Exception {
+        long before = countLiveHttpClients();
+        int openBefore = ClientLifecycleUtil.getOpenClients().size();
+
+        LifecycleClient client = RestClientBuilder.newBuilder()
+            .baseUri(URI.create("http://localhost:8080/null"))
+            .build(LifecycleClient.class);
+        // the HttpClient may be shared with a client built by another test
+        assertTrue(countLiveHttpClients() <= before + 1);
+        assertEquals(ClientLifecycleUtil.getOpenClients().size(), openBefore + 1);
+
+        ((Closeable) client).close();
+        assertLiveHttpClients(before);
+        assertEquals(ClientLifecycleUtil.getOpenClients().size(), openBefore);
+    }
+
+    /**
+     * Counts running Jetty HttpClients by their thread pools, which are named HttpClient@hash by default.
+     */
+    private static long countLiveHttpClients() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .map(Thread::getName)
+            .filter(name -> name.startsWith("HttpClient@") && name.lastIndexOf('-') > 0)
+            .map(name -> name.substring(0, name.lastIndexOf('-')))
+            .distinct()
+            .count();
+    }
+
+    private static void assertLiveHttpClients(long expected) throws InterruptedException {
+        // stopped thread pools may take a moment to terminate their threads
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (countLiveHttpClients() > expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(countLiveHttpClients(), expected);
+    }
+}
@@ -0,0 +1,91 @@
+package com.kumuluz.ee.rest.client.mp.tests;
+
+import com.kumuluz.ee.rest.client.mp.engine.GeneratedClient;
+import com.kumuluz.ee.rest.client.mp.tests.interfaces.*;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.testng.annotations.Test;
+
+import javax.enterprise.inject.spi.CDI;
+import java.io.Closeable;
+import java.net.URI;
+
+import static org.testng.Assert.*;
+
+/**
+ * Runs rest clients with the generated implementation engine, enabled globally with
+ * <code>kumuluzee.rest-client.engine</code>.
+ */
+@Test
+public class GeneratedEngineTests extends Arquillian {
+
+    @Deployment
+    public static JavaArchive createDeployment() {
+        return ShrinkWrap.create(JavaArchive.class, GeneratedEngineTests.class.getSimpleName() + ".jar")
+            .addClasses(PrimitivesClient.class, GenericEchoClient.class, StringEchoClient.class,
+                InterceptedClient.class, Counted.class, CountingInterceptor.class, QueryEchoFilter.class)
+            .addAsManifestResource(new StringAsset("kumuluzee.rest-client.engine=generated"),
+                "microprofile-config.properties")
+            .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+    }
+
+    @Test
+    public void testPrimitives() {
+        PrimitivesClient client = newClient(PrimitivesClient.class);
+
+        assertTrue(client instanceof GeneratedClient);
+        assertEquals(client.echoInt(-7), -7);
+        assertEquals(client.echoLong(Long.MAX_VALUE), Long.MAX_VALUE);
+        assertEquals(client.echoDouble(2.5), 2.5);
+        assertTrue(client.echoBoolean(true));
+        assertEquals(client.sum(1, 1L << 40, 0.5, (short) 3), 1 + (1L << 40) + 0.5 + 3);
+        client.delete();
+    }
+
+    @Test
+    public void testCovariantOverride() {
+        StringEchoClient client = newClient(StringEchoClient.class);
+        GenericEchoClient<CharSequence> genericClient = client;
+
+        assertTrue(client instanceof GeneratedClient);
+        assertEquals(client.echo("direct"), "direct");
+        assertEquals(genericClient.echo("bridge"), "bridge");
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        PrimitivesClient client = newClient(PrimitivesClient.class);
+
+        assertTrue(client instanceof Closeable);
+        assertEquals(client.echoInt(1), 1);
+        ((Closeable) client).close();
+        // closing again is a no-op
+        ((Closeable) client).close();
+        assertThrows(IllegalStateException.class, () -> client.echoInt(2));
+    }
+
+    @Test
+    public void testInterceptedClient() {
+        InterceptedClient client = CDI.current().select(InterceptedClient.class, RestClient.LITERAL).get();
+        int invocations = CountingInterceptor.INVOCATIONS.get();
+
+        assertTrue(client instanceof GeneratedClient);
+        assertEquals(client.counted(42L), 42L);
+        assertEquals(CountingInterceptor.INVOCATIONS.get(), invocations + 1);
+        assertEquals(client.uncounted("value"), "value");
+        assertEquals(CountingInterceptor.INVOCATIONS.get(), invocations + 1);
+    }
+
+    private static <T> T newClient(Class<T> apiClass) {
+        return RestClientBuilder.newBuilder()
+            .baseUri(URI.create("http://localhost:8080/null"))
+            .register(QueryEchoFilter.class)
+            .build(apiClass);
+    }
+}
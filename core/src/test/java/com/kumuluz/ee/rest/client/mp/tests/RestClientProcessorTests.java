@@ -0,0 +1,236 @@
+package com.kumuluz.ee.rest.client.mp.tests;
+
+import com.kumuluz.ee.rest.client.mp.engine.ClientDispatcher;
+import com.kumuluz.ee.rest.client.mp.engine.GeneratedClient;
+import com.kumuluz.ee.rest.client.mp.engine.GeneratedClientFactory;
+import com.kumuluz.ee.rest.client.mp.processor.RestClientProcessor;
+import com.kumuluz.ee.rest.client.mp.util.RestClientIndexUtil;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.tools.*;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Compiles rest client interfaces with {@link RestClientProcessor} and checks the reported errors, the generated
+ * implementation classes and the index of rest client interfaces.
+ */
+@Test
+public class RestClientProcessorTests {
+
+    private static final String IMPORTS = "package sample;\n" +
+        "import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;\n" +
+        "import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;\n" +
+        "import javax.ws.rs.*;\n";
+
+    private Path outputDirectory;
+
+    @BeforeMethod
+    public void createOutputDirectory() throws IOException {
+        outputDirectory = Files.createTempDirectory("rest-client-processor");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteOutputDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(outputDirectory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testProcessorMatchesRuntime() {
+        // the processor does not depend on the runtime, names it shares with the runtime are duplicated
+        assertEquals(RestClientProcessor.INDEX_RESOURCE, RestClientIndexUtil.INDEX_RESOURCE);
+        assertEquals(RestClientProcessor.COMPILED_CLASS_NAME_SUFFIX, GeneratedClientFactory.COMPILED_CLASS_NAME_SUFFIX);
+        assertEquals(RestClientProcessor.COMPILED_METHOD_NAMES_FIELD, GeneratedClientFactory.COMPILED_METHOD_NAMES_FIELD);
+        assertEquals(RestClientProcessor.COMPILED_PARAMETER_TYPES_FIELD,
+            GeneratedClientFactory.COMPILED_PARAMETER_TYPES_FIELD);
+        assertEquals(RestClientProcessor.GENERATED_CLIENT, GeneratedClient.class.getName());
+        assertEquals(RestClientProcessor.CLIENT_DISPATCHER, ClientDispatcher.class.getName());
+        assertEquals(RestClientProcessor.GENERATED_CLIENT_FACTORY, GeneratedClientFactory.class.getName());
+    }
+
+    @Test
+    public void testGeneratesImplementationAndIndex() throws Exception {
+        Compilation compilation = compile(
+            source("ItemsClient", "@RegisterRestClient\n" +
+                "@Path(\"/items/{tenant}\")\n" +
+                "public interface ItemsClient {\n" +
+                "    @GET @Path(\"/{id}\")\n" +
+                "    String get(@PathParam(\"tenant\") String tenant, @PathParam(\"id\") long id);\n" +
+                "    @GET double ratio(@PathParam(\"tenant\") String tenant, @QueryParam(\"a\") int a);\n" +
+                "}"),
+            source("Outer", "public class Outer {\n" +
+                "    @RegisterRestClient\n" +
+                "    public interface Inner {\n" +
+                "        @GET String get(@BeanParam Params params);\n" +
+                "    }\n" +
+                "    public static class Params {\n" +
+                "        @QueryParam(\"q\") public String query;\n" +
+                "    }\n" +
+                "}"),
+            source("NotRegistered", "public interface NotRegistered {\n" +
+                "    @GET String get();\n" +
+                "}"));
+
+        assertTrue(compilation.success, compilation.errors().toString());
+        assertEquals(compilation.index(), Arrays.asList("sample.ItemsClient", "sample.Outer$Inner"));
+        assertTrue(Files.exists(outputDirectory.resolve("sample/ItemsClient$$KumuluzRestClient.class")));
+        assertTrue(Files.exists(outputDirectory.resolve("sample/Outer$Inner$$KumuluzRestClient.class")));
+        assertFalse(Files.exists(outputDirectory.resolve("sample/NotRegistered$$KumuluzRestClient.class")));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()},
+            getClass().getClassLoader())) {
+            Class<?> apiClass = classLoader.loadClass("sample.ItemsClient");
+            assertTrue(GeneratedClientFactory.hasCompiledClient(apiClass));
+
+            List<Method> clientMethods = Arrays.asList(GeneratedClientFactory.getClientMethods(apiClass));
+            List<Integer> dispatched = new ArrayList<>();
+            Object client = GeneratedClientFactory.newInstance(apiClass, (target, methodIndex, args) -> {
+                dispatched.add(methodIndex);
+                switch (clientMethods.get(methodIndex).getName()) {
+                    case "get":
+                        return args[1].toString();
+                    case "ratio":
+                        return 0.5;
+                    default:
+                        return null;
+                }
+            }).orElseThrow(AssertionError::new);
+
+            assertTrue(client instanceof GeneratedClient);
+            assertTrue(client instanceof Closeable);
+
+            Method get = apiClass.getMethod("get", String.class, long.class);
+            Method ratio = apiClass.getMethod("ratio", String.class, int.class);
+            assertEquals(get.invoke(client, "acme", 42L), "42");
+            assertEquals(ratio.invoke(client, "acme", 1), 0.5);
+            ((Closeable) client).close();
+
+            assertEquals(dispatched, Arrays.asList(clientMethods.indexOf(get), clientMethods.indexOf(ratio),
+                clientMethods.indexOf(Closeable.class.getMethod("close"))));
+        }
+    }
+
+    @Test
+    public void testReportsInvalidInterfaces() throws Exception {
+        Compilation compilation = compile(
+            source("MultipleMethods", "@RegisterRestClient\n" +
+                "public interface MultipleMethods {\n" +
+                "    @GET @POST String get();\n" +
+                "}"),
+            source("UnmatchedPathParam", "@RegisterRestClient\n" +
+                "@Path(\"/items/{id}\")\n" +
+                "public interface UnmatchedPathParam {\n" +
+                "    @GET String get(@PathParam(\"name\") String name);\n" +
+                "}"),
+            source("UnmatchedBeanPathParam", "@RegisterRestClient\n" +
+                "@Path(\"/items/{tenant}/{id}\")\n" +
+                "public interface UnmatchedBeanPathParam {\n" +
+                "    @GET String get(@BeanParam Params params);\n" +
+                "    class Params {\n" +
+                "        @PathParam(\"tenant\") public String tenant;\n" +
+                "    }\n" +
+                "}"),
+            source("DuplicateHeaders", "@RegisterRestClient\n" +
+                "@ClientHeaderParam(name = \"X-Header\", value = \"a\")\n" +
+                "@ClientHeaderParam(name = \"X-Header\", value = \"b\")\n" +
+                "public interface DuplicateHeaders {\n" +
+                "    @GET String get();\n" +
+                "}"),
+            source("NotAnInterface", "@RegisterRestClient\n" +
+                "public class NotAnInterface {\n" +
+                "}"),
+            source("ValidClient", "@RegisterRestClient\n" +
+                "public interface ValidClient {\n" +
+                "    @GET String get();\n" +
+                "}"));
+
+        assertFalse(compilation.success);
+        assertError(compilation, "MultipleMethods", "Multiple HTTP methods are not allowed!");
+        assertError(compilation, "UnmatchedPathParam", "Number of path parameters and variables don't match!");
+        assertError(compilation, "UnmatchedBeanPathParam", "Number of path parameters and variables don't match!");
+        assertError(compilation, "DuplicateHeaders", "multiple ClientHeaderParams with the name X-Header");
+        assertError(compilation, "NotAnInterface", "Rest client needs to be interface");
+        assertEquals(compilation.errors().size(), 5, compilation.errors().toString());
+        assertEquals(compilation.index(), Collections.singletonList("sample.ValidClient"));
+    }
+
+    private static void assertError(Compilation compilation, String sourceName, String message) {
+        assertTrue(compilation.errors().stream().anyMatch(d -> d.getSource() != null &&
+                d.getSource().getName().endsWith(sourceName + ".java") &&
+                d.getMessage(Locale.ROOT).contains(message)),
+            "Missing error '" + message + "' in " + sourceName + ": " + compilation.errors());
+    }
+
+    private static JavaFileObject source(String className, String body) {
+        return new SimpleJavaFileObject(URI.create("string:///sample/" + className + ".java"),
+            JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return IMPORTS + body;
+            }
+        };
+    }
+
+    private Compilation compile(JavaFileObject... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new SkipException("Java compiler is not available");
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+            StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(outputDirectory.toFile()));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT,
+                Collections.singletonList(outputDirectory.toFile()));
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                Arrays.asList("-classpath", System.getProperty("java.class.path")), null, Arrays.asList(sources));
+            task.setProcessors(Collections.singletonList(new RestClientProcessor()));
+
+            return new Compilation(task.call(), diagnostics.getDiagnostics(),
+                outputDirectory.resolve(RestClientIndexUtil.INDEX_RESOURCE));
+        }
+    }
+
+    private static class Compilation {
+
+        private final boolean success;
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        private final Path index;
+
+        Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Path index) {
+            this.success = success;
+            this.diagnostics = diagnostics;
+            this.index = index;
+        }
+
+        List<Diagnostic<? extends JavaFileObject>> errors() {
+            return diagnostics.stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .collect(Collectors.toList());
+        }
+
+        List<String> index() throws IOException {
+            return Files.exists(index) ? Files.readAllLines(index, StandardCharsets.UTF_8) : Collections.emptyList();
+        }
+    }
+}
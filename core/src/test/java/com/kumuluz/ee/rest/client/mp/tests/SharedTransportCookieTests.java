@@ -0,0 +1,59 @@
+package com.kumuluz.ee.rest.client.mp.tests;
+
+import com.kumuluz.ee.rest.client.mp.tests.interfaces.CookieClient;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.eclipse.microprofile.rest.client.tck.WiremockArquillianTest;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.Response;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Rest clients with the same transport configuration share the Jetty HttpClient when sharing is enabled, but must
+ * not share cookies.
+ */
+@Test
+public class SharedTransportCookieTests extends WiremockArquillianTest {
+
+    private static final String LOGIN_PATH = "/shared-transport-cookies/login";
+    private static final String PROFILE_PATH = "/shared-transport-cookies/profile";
+
+    @Deployment
+    public static JavaArchive createDeployment() {
+        return ShrinkWrap.create(JavaArchive.class, SharedTransportCookieTests.class.getSimpleName() + ".jar")
+            .addClasses(CookieClient.class, WiremockArquillianTest.class)
+            .addAsManifestResource(new StringAsset("kumuluzee.rest-client.transport.shared=true"),
+                "microprofile-config.properties")
+            .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+    }
+
+    @Test
+    public void testCookiesAreNotShared() {
+        stubFor(get(urlEqualTo(LOGIN_PATH))
+            .willReturn(aResponse().withStatus(200).withHeader("Set-Cookie", "session=first; Path=/")));
+        stubFor(get(urlEqualTo(PROFILE_PATH)).willReturn(aResponse().withStatus(200)));
+
+        CookieClient first = RestClientBuilder.newBuilder().baseUri(getServerURI()).build(CookieClient.class);
+        CookieClient second = RestClientBuilder.newBuilder().baseUri(getServerURI()).build(CookieClient.class);
+
+        try (Response r = first.login()) {
+            assertEquals(r.getStatus(), 200);
+        }
+        try (Response r = first.profile()) {
+            assertEquals(r.getStatus(), 200);
+        }
+        try (Response r = second.profile()) {
+            assertEquals(r.getStatus(), 200);
+        }
+
+        verify(1, getRequestedFor(urlEqualTo(PROFILE_PATH)).withCookie("session", equalTo("first")));
+        verify(1, getRequestedFor(urlEqualTo(PROFILE_PATH)).withoutHeader("Cookie"));
+    }
+}
@@ -0,0 +1,16 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Response;
+
+@Path("/items")
+public interface AllocationClient {
+
+    @GET
+    @Path("/{id}")
+    Response get(@PathParam("id") long id, @QueryParam("filter") String filter, @HeaderParam("X-Trace") String trace);
+}
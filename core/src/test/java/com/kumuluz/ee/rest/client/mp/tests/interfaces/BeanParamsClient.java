@@ -0,0 +1,56 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import com.kumuluz.ee.rest.client.mp.integrations.KeeRestParameters;
+
+import javax.ws.rs.BeanParam;
+import javax.ws.rs.CookieParam;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Response;
+
+@Path("/tenants/{tenant}")
+public interface BeanParamsClient {
+
+    @POST
+    @Path("/items/{id}")
+    Response update(@BeanParam ItemParams item, @BeanParam KeeRestParameters parameters);
+
+    class ItemParams {
+
+        @PathParam("tenant")
+        private final String tenant;
+        @HeaderParam("X-Trace")
+        private final String trace;
+        @CookieParam("session")
+        private final String session;
+        @FormParam("name")
+        private final String name;
+        @BeanParam
+        private final ItemId itemId;
+
+        public ItemParams(String tenant, String trace, String session, String name, long id) {
+            this.tenant = tenant;
+            this.trace = trace;
+            this.session = session;
+            this.name = name;
+            this.itemId = new ItemId(id);
+        }
+    }
+
+    class ItemId {
+
+        private final long id;
+
+        ItemId(long id) {
+            this.id = id;
+        }
+
+        @PathParam("id")
+        public long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+@Path("/shared-transport-cookies")
+public interface CookieClient {
+
+    @GET
+    @Path("/login")
+    Response login();
+
+    @GET
+    @Path("/profile")
+    Response profile();
+}
@@ -0,0 +1,21 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import javax.annotation.Priority;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Counted
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class CountingInterceptor {
+
+    public static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+    @AroundInvoke
+    public Object count(InvocationContext context) throws Exception {
+        INVOCATIONS.incrementAndGet();
+        return context.proceed();
+    }
+}
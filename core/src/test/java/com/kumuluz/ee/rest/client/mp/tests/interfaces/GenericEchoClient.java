@@ -0,0 +1,15 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+public interface GenericEchoClient<T> {
+
+    @GET
+    @Path("/echo")
+    @Produces(MediaType.TEXT_PLAIN)
+    T echo(@QueryParam("value") String value);
+}
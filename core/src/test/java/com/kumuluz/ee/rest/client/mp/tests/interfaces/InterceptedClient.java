@@ -0,0 +1,26 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+@Path("/intercepted")
+@Produces(MediaType.TEXT_PLAIN)
+@RegisterRestClient(baseUri = "http://localhost:8080/null")
+@RegisterProvider(QueryEchoFilter.class)
+public interface InterceptedClient {
+
+    @GET
+    @Path("/counted")
+    @Counted
+    long counted(@QueryParam("value") long value);
+
+    @GET
+    @Path("/uncounted")
+    String uncounted(@QueryParam("value") String value);
+}
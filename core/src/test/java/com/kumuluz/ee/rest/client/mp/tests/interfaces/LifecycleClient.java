@@ -0,0 +1,20 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.eclipse.microprofile.rest.client.tck.providers.ProducesConsumesFilter;
+
+import javax.enterprise.context.RequestScoped;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+@Path("/lifecycle")
+@RequestScoped
+@RegisterRestClient(baseUri = "http://localhost:8080/null")
+@RegisterProvider(ProducesConsumesFilter.class)
+public interface LifecycleClient {
+
+    @GET
+    Response get();
+}
@@ -0,0 +1,21 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import javax.ws.rs.BeanParam;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Response;
+
+@Path("/tenants/{tenant}")
+public interface MissingBeanPathParamClient {
+
+    @GET
+    @Path("/items/{id}")
+    Response get(@BeanParam TenantParams tenant);
+
+    class TenantParams {
+
+        @PathParam("tenant")
+        public String tenant;
+    }
+}
@@ -0,0 +1,36 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+@Path("/primitives")
+@Produces(MediaType.TEXT_PLAIN)
+public interface PrimitivesClient {
+
+    @GET
+    @Path("/int")
+    int echoInt(@QueryParam("value") int value);
+
+    @GET
+    @Path("/long")
+    long echoLong(@QueryParam("value") long value);
+
+    @GET
+    @Path("/double")
+    double echoDouble(@QueryParam("value") double value);
+
+    @GET
+    @Path("/boolean")
+    boolean echoBoolean(@QueryParam("value") boolean value);
+
+    @GET
+    @Path("/sum")
+    double sum(@QueryParam("a") int a, @QueryParam("b") long b, @QueryParam("c") double c, @QueryParam("d") short d);
+
+    @DELETE
+    void delete();
+}
@@ -0,0 +1,42 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Aborts requests with the <code>value</code> query parameter as a plain text entity. Requests to <code>/sum</code>
+ * are answered with the sum of all query parameters, requests without a query with no content.
+ */
+public class QueryEchoFilter implements ClientRequestFilter {
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        String query = requestContext.getUri().getRawQuery();
+        if (query == null) {
+            requestContext.abortWith(Response.noContent().build());
+            return;
+        }
+
+        String value = null;
+        double sum = 0;
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = pair.substring(0, separator);
+            String decoded = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            if (name.equals("value")) {
+                value = decoded;
+            } else {
+                sum += Double.parseDouble(decoded);
+            }
+        }
+
+        if (requestContext.getUri().getPath().endsWith("/sum")) {
+            value = String.valueOf(sum);
+        }
+        requestContext.abortWith(Response.ok(value, MediaType.TEXT_PLAIN).build());
+    }
+}
@@ -0,0 +1,17 @@
+package com.kumuluz.ee.rest.client.mp.tests.interfaces;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+@Path("/strings")
+public interface StringEchoClient extends GenericEchoClient<CharSequence> {
+
+    @Override
+    @GET
+    @Path("/echo")
+    @Produces(MediaType.TEXT_PLAIN)
+    String echo(@QueryParam("value") String value);
+}
@@ -0,0 +1,544 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.rest.client.mp.processor;
+
+import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Optional annotation processor for interfaces annotated with
+ * {@link org.eclipse.microprofile.rest.client.inject.RegisterRestClient}. The processor validates the interfaces,
+ * generates their implementation classes and writes an index of the interfaces to {@value #INDEX_RESOURCE}, which is
+ * read by the CDI extension. Validation is skipped at runtime for indexed interfaces.
+ * <p>
+ * The processor is distributed separately from the runtime and does not depend on it. It is registered as a service,
+ * so it runs once its artifact is added to the annotation processor path.
+ *
+ * @author Urban Malc
+ * @since 2.1.0
+ */
+@SupportedAnnotationTypes(RestClientProcessor.REGISTER_REST_CLIENT)
+public class RestClientProcessor extends AbstractProcessor {
+
+    static final String REGISTER_REST_CLIENT = "org.eclipse.microprofile.rest.client.inject.RegisterRestClient";
+
+    // contract with the runtime, see RestClientIndexUtil and GeneratedClientFactory
+    public static final String INDEX_RESOURCE = "META-INF/kumuluzee/rest-client/registrations";
+    public static final String COMPILED_CLASS_NAME_SUFFIX = "$$KumuluzRestClient";
+    public static final String COMPILED_METHOD_NAMES_FIELD = "KUMULUZ_METHOD_NAMES";
+    public static final String COMPILED_PARAMETER_TYPES_FIELD = "KUMULUZ_PARAMETER_TYPES";
+    public static final String GENERATED_CLIENT = "com.kumuluz.ee.rest.client.mp.engine.GeneratedClient";
+    public static final String CLIENT_DISPATCHER = "com.kumuluz.ee.rest.client.mp.engine.ClientDispatcher";
+    public static final String GENERATED_CLIENT_FACTORY = "com.kumuluz.ee.rest.client.mp.engine.GeneratedClientFactory";
+
+    // same syntax as the path parameters validated at runtime
+    private static final Pattern PATH_PARAM_PATTERN = Pattern.compile("\\{\\s*(\\w[\\w.-]*)\\s*(:\\s*([^{}][^{}]*))?}");
+
+    private static final String HTTP_METHOD = "javax.ws.rs.HttpMethod";
+    private static final String PATH = "javax.ws.rs.Path";
+    private static final String PATH_PARAM = "javax.ws.rs.PathParam";
+    private static final String BEAN_PARAM = "javax.ws.rs.BeanParam";
+
+    private final Set<String> indexedClients = new TreeSet<>();
+
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement registerRestClient = elements.getTypeElement(REGISTER_REST_CLIENT);
+
+        if (registerRestClient != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(registerRestClient)) {
+                if (element.getKind() != ElementKind.INTERFACE) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "Rest client needs to be interface: " + element,
+                            element);
+                    continue;
+                }
+
+                TypeElement restClient = (TypeElement) element;
+                if (restClient.getModifiers().contains(Modifier.PRIVATE)) {
+                    messager.printMessage(Diagnostic.Kind.WARNING, "Private rest client interfaces are not " +
+                            "processed: " + restClient, restClient);
+                    continue;
+                }
+
+                try {
+                    if (validate(restClient)) {
+                        generateClient(restClient);
+                        indexedClients.add(elements.getBinaryName(restClient).toString());
+                    }
+                } catch (IOException e) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "Could not generate rest client implementation: " +
+                            e.getMessage(), restClient);
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !indexedClients.isEmpty()) {
+            writeIndex();
+        }
+
+        return false;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    INDEX_RESOURCE);
+            try (Writer writer = index.openWriter()) {
+                for (String className : indexedClients) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write rest client index: " + e.getMessage());
+        }
+    }
+
+    /* validation, mirrors InterfaceValidatorUtil */
+
+    private boolean validate(TypeElement restClient) {
+        boolean valid = true;
+        List<ExecutableElement> methods = getMethods(restClient);
+
+        for (ExecutableElement method : methods) {
+            valid &= checkForMultipleHttpMethods(method);
+            valid &= checkClientHeaderParams(method, method.getAnnotationsByType(ClientHeaderParam.class),
+                    " Method defines multiple ClientHeaderParams with the name ");
+        }
+        valid &= checkClientHeaderParams(restClient, restClient.getAnnotationsByType(ClientHeaderParam.class),
+                " Interface class defines multiple ClientHeaderParams with the name ");
+        valid &= checkForMatchingParams(restClient, methods);
+
+        return valid;
+    }
+
+    private boolean checkForMultipleHttpMethods(ExecutableElement method) {
+        AnnotationMirror httpMethod = null;
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (getAnnotation(annotation.getAnnotationType().asElement(), HTTP_METHOD) != null) {
+                if (httpMethod != null) {
+                    error(method, String.format("Multiple HTTP methods are not allowed! Cause: %s and %s on " +
+                            "method %s!", annotation, httpMethod, method.getSimpleName()));
+                    return false;
+                }
+                httpMethod = annotation;
+            }
+        }
+        return true;
+    }
+
+    private boolean checkForMatchingParams(TypeElement restClient, List<ExecutableElement> methods) {
+        Set<String> declaredVariables = new HashSet<>(getPathParams(restClient));
+        Set<String> methodParameterVariables = new HashSet<>();
+
+        for (ExecutableElement method : methods) {
+            declaredVariables.addAll(getPathParams(method));
+            for (VariableElement parameter : method.getParameters()) {
+                collectPathParams(parameter, parameter.asType(), methodParameterVariables, new HashSet<>());
+            }
+        }
+
+        if (!declaredVariables.equals(methodParameterVariables)) {
+            error(restClient, String.format("Number of path parameters and variables don't match! Cause: %s",
+                    restClient));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Collects the path parameter bound by the element. Members of {@code @BeanParam} types, including nested bean
+     * parameters, are collected the same way as they are bound at runtime.
+     */
+    private void collectPathParams(Element element, TypeMirror type, Set<String> pathParams,
+                                   Set<TypeElement> visitedBeans) {
+        AnnotationMirror pathParam = getAnnotation(element, PATH_PARAM);
+        if (pathParam != null) {
+            pathParams.add(getStringValue(pathParam));
+            return;
+        }
+        if (getAnnotation(element, BEAN_PARAM) == null || type.getKind() != TypeKind.DECLARED) {
+            return;
+        }
+
+        TypeElement beanType = (TypeElement) types.asElement(type);
+        while (beanType != null && visitedBeans.add(beanType) &&
+                !beanType.getQualifiedName().contentEquals(Object.class.getName())) {
+            for (VariableElement field : ElementFilter.fieldsIn(beanType.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    collectPathParams(field, field.asType(), pathParams, visitedBeans);
+                }
+            }
+            for (ExecutableElement getter : ElementFilter.methodsIn(beanType.getEnclosedElements())) {
+                if (!getter.getModifiers().contains(Modifier.STATIC) && getter.getParameters().isEmpty() &&
+                        getter.getReturnType().getKind() != TypeKind.VOID) {
+                    collectPathParams(getter, getter.getReturnType(), pathParams, visitedBeans);
+                }
+            }
+            TypeMirror superclass = beanType.getSuperclass();
+            beanType = (superclass.getKind() == TypeKind.DECLARED) ? (TypeElement) types.asElement(superclass) : null;
+        }
+    }
+
+    private List<String> getPathParams(Element element) {
+        List<String> params = new ArrayList<>();
+        AnnotationMirror path = getAnnotation(element, PATH);
+        if (path != null) {
+            Matcher matcher = PATH_PARAM_PATTERN.matcher(replaceNestedBraces(getStringValue(path)));
+            while (matcher.find()) {
+                params.add(matcher.group(1));
+            }
+        }
+        return params;
+    }
+
+    private boolean checkClientHeaderParams(Element element, ClientHeaderParam[] clientHeaderParams,
+                                            String duplicateMessage) {
+        Set<String> definedNames = new HashSet<>();
+        for (ClientHeaderParam clientHeaderParam : clientHeaderParams) {
+            if (!definedNames.add(clientHeaderParam.name())) {
+                error(element, describe(element) + duplicateMessage + clientHeaderParam.name());
+                return false;
+            }
+            if (!checkClientHeaderParam(element, clientHeaderParam)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean checkClientHeaderParam(Element element, ClientHeaderParam clientHeaderParam) {
+        String[] values = clientHeaderParam.value();
+        for (String value : values) {
+            if (!value.startsWith("{") || !value.endsWith("}")) {
+                continue;
+            }
+
+            if (values.length > 1) {
+                error(element, describe(element) +
+                        " Additional values defined alongside method reference in single ClientHeaderParam");
+                return false;
+            }
+
+            String invocationName = value.substring(1, value.length() - 1);
+            int separatorIdx = invocationName.lastIndexOf('.');
+
+            TypeElement invocationClass = (element instanceof TypeElement) ? (TypeElement) element :
+                    (TypeElement) element.getEnclosingElement();
+            String invocationMethod = invocationName;
+            if (separatorIdx >= 0) {
+                // binary name to canonical name
+                invocationClass = elements.getTypeElement(invocationName.substring(0, separatorIdx)
+                        .replace('$', '.'));
+                invocationMethod = invocationName.substring(separatorIdx + 1);
+                if (invocationClass == null) {
+                    error(element, describe(element) + " Could not resolve class declared in method reference: " +
+                            invocationName.substring(0, separatorIdx));
+                    return false;
+                }
+            }
+
+            TypeMirror stringType = elements.getTypeElement(String.class.getName()).asType();
+            ExecutableElement matchingMethod = null;
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(invocationClass))) {
+                if (!method.getModifiers().contains(Modifier.PUBLIC) ||
+                        !method.getSimpleName().contentEquals(invocationMethod)) {
+                    continue;
+                }
+                List<? extends VariableElement> parameters = method.getParameters();
+                if (parameters.isEmpty() ||
+                        (parameters.size() == 1 && types.isAssignable(stringType, parameters.get(0).asType()))) {
+                    matchingMethod = method;
+                }
+            }
+
+            if (matchingMethod == null) {
+                error(element, describe(element) + " Could not find method reference. Make sure it has either " +
+                        "zero parameters or one parameter of type String.");
+                return false;
+            }
+
+            TypeMirror returnType = matchingMethod.getReturnType();
+            if (!types.isAssignable(stringType, returnType) &&
+                    !types.isAssignable(types.getArrayType(stringType), returnType)) {
+                error(element, describe(element) + " Method reference should return either String or String[].");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* generation */
+
+    private void generateClient(TypeElement restClient) throws IOException {
+        DeclaredType restClientType = (DeclaredType) restClient.asType();
+        PackageElement packageElement = elements.getPackageOf(restClient);
+        String packageName = packageElement.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(restClient).toString();
+        String simpleName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1) +
+                COMPILED_CLASS_NAME_SUFFIX;
+
+        // methods keyed by their erased signature as a member of the interface
+        Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        Map<String, List<TypeMirror>> memberParameterTypes = new HashMap<>();
+        for (ExecutableElement method : getMethods(restClient)) {
+            ExecutableType memberType = (ExecutableType) types.asMemberOf(restClientType, method);
+            List<TypeMirror> parameterTypes = new ArrayList<>();
+            List<String> parameterTypeNames = new ArrayList<>();
+            for (TypeMirror parameterType : memberType.getParameterTypes()) {
+                parameterTypes.add(types.erasure(parameterType));
+                parameterTypeNames.add(typeName(parameterType));
+            }
+            String key = method.getSimpleName() + parameterTypeNames.toString();
+            if (methods.putIfAbsent(key, method) == null) {
+                memberParameterTypes.put(key, parameterTypes);
+            }
+        }
+        boolean declaresClose = methods.containsKey("close[]");
+
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? simpleName : packageName + "." + simpleName, restClient);
+
+        try (PrintWriter out = new PrintWriter(sourceFile.openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("@javax.annotation.processing.Generated(\"" + RestClientProcessor.class.getName() + "\")");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + simpleName + " implements " + restClient.getQualifiedName() +
+                    (declaresClose ? "" : ", java.io.Closeable") + ", " + GENERATED_CLIENT + " {");
+            out.println();
+
+            // declared (erased) signatures, matched with the methods of the interface at runtime
+            out.println("    public static final String[] " + COMPILED_METHOD_NAMES_FIELD + " = {");
+            for (ExecutableElement method : methods.values()) {
+                out.println("            \"" + method.getSimpleName() + "\",");
+            }
+            if (!declaresClose) {
+                out.println("            \"close\",");
+            }
+            out.println("    };");
+            out.println();
+            out.println("    public static final Class<?>[][] " + COMPILED_PARAMETER_TYPES_FIELD + " = {");
+            for (ExecutableElement method : methods.values()) {
+                StringJoiner parameterTypes = new StringJoiner(", ", "            {", "},");
+                for (VariableElement parameter : method.getParameters()) {
+                    parameterTypes.add(typeName(parameter.asType()) + ".class");
+                }
+                out.println(parameterTypes);
+            }
+            if (!declaresClose) {
+                out.println("            {},");
+            }
+            out.println("    };");
+            out.println();
+
+            out.println("    private final " + CLIENT_DISPATCHER + " dispatcher;");
+            out.println("    private final int[] methodIndices;");
+            out.println();
+            out.println("    public " + simpleName + "(" + CLIENT_DISPATCHER + " dispatcher, int[] methodIndices) {");
+            out.println("        this.dispatcher = dispatcher;");
+            out.println("        this.methodIndices = methodIndices;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + CLIENT_DISPATCHER + " kumuluzClientDispatcher() {");
+            out.println("        return dispatcher;");
+            out.println("    }");
+
+            int methodIndex = 0;
+            for (Map.Entry<String, ExecutableElement> method : methods.entrySet()) {
+                ExecutableType memberType = (ExecutableType) types.asMemberOf(restClientType, method.getValue());
+                writeMethod(out, method.getValue().getSimpleName().toString(),
+                        types.erasure(memberType.getReturnType()), memberParameterTypes.get(method.getKey()),
+                        methodIndex++);
+            }
+            if (!declaresClose) {
+                writeMethod(out, "close", types.getNoType(TypeKind.VOID), Collections.emptyList(), methodIndex);
+            }
+
+            out.println("}");
+        }
+    }
+
+    private void writeMethod(PrintWriter out, String name, TypeMirror returnType, List<TypeMirror> parameterTypes,
+                             int methodIndex) {
+        StringJoiner parameters = new StringJoiner(", ");
+        StringJoiner arguments = new StringJoiner(", ");
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            parameters.add(typeName(parameterTypes.get(i)) + " arg" + i);
+            arguments.add("arg" + i);
+        }
+
+        String dispatch = "dispatcher.dispatch(this, methodIndices[" + methodIndex + "], new Object[]{" +
+                arguments + "})";
+
+        out.println();
+        out.println("    @Override");
+        out.println("    public " + typeName(returnType) + " " + name + "(" + parameters + ") {");
+        out.println("        try {");
+        if (returnType.getKind() == TypeKind.VOID) {
+            out.println("            " + dispatch + ";");
+        } else if (returnType.getKind().isPrimitive()) {
+            out.println("            return (" + types.boxedClass((PrimitiveType) returnType).getQualifiedName() +
+                    ") " + dispatch + ";");
+        } else {
+            out.println("            return (" + typeName(returnType) + ") " + dispatch + ";");
+        }
+        out.println("        } catch (Throwable t) {");
+        out.println("            throw " + GENERATED_CLIENT_FACTORY + ".propagate(t);");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    /* helpers */
+
+    /**
+     * Replaces braces nested in a path parameter with other characters, so that the regular expression of a parameter
+     * may contain braces. Indices remain valid.
+     */
+    private static String replaceNestedBraces(String path) {
+        char[] chars = path.toCharArray();
+        int open = 0;
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == '{') {
+                if (open != 0) {
+                    chars[i] = 6;
+                }
+                open++;
+            } else if (chars[i] == '}') {
+                open--;
+                if (open != 0) {
+                    chars[i] = 7;
+                }
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns the non-static methods of the interface, including the inherited ones, except methods of
+     * {@link Object}.
+     */
+    private List<ExecutableElement> getMethods(TypeElement restClient) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(restClient))) {
+            Element declaringType = method.getEnclosingElement();
+            if (method.getModifiers().contains(Modifier.STATIC) ||
+                    method.getModifiers().contains(Modifier.PRIVATE) ||
+                    (declaringType instanceof TypeElement &&
+                            ((TypeElement) declaringType).getQualifiedName().contentEquals(Object.class.getName()))) {
+                continue;
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    /**
+     * Returns the source name of the erased type, without type annotations.
+     */
+    private String typeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case DECLARED:
+                return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType()) + "[]";
+            case TYPEVAR:
+            case INTERSECTION:
+                return typeName(types.erasure(type));
+            case VOID:
+                return "void";
+            default:
+                if (type.getKind().isPrimitive()) {
+                    return type.getKind().name().toLowerCase(Locale.ROOT);
+                }
+                throw new IllegalArgumentException("Unsupported type " + type);
+        }
+    }
+
+    private static AnnotationMirror getAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static String getStringValue(AnnotationMirror annotation) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value :
+                annotation.getElementValues().entrySet()) {
+            if (value.getKey().getSimpleName().contentEquals("value")) {
+                return value.getValue().getValue().toString();
+            }
+        }
+        return "";
+    }
+
+    private static String describe(Element element) {
+        if (element instanceof TypeElement) {
+            return String.format("[Class: %s]", ((TypeElement) element).getQualifiedName());
+        }
+        return String.format("[Method: %s; Class: %s]", element.getSimpleName(),
+                ((TypeElement) element.getEnclosingElement()).getQualifiedName());
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}